@@ -10,13 +10,20 @@ from openai import OpenAI
 class OpenAIClient:
     """Client for OpenAI API interactions."""
     
-    def __init__(self, api_key: Optional[str] = None):
+    DEFAULT_MODEL = "gpt-4-turbo-preview"
+
+    def __init__(self, api_key: Optional[str] = None, model: Optional[str] = None):
         """
         Initialize OpenAI client.
         
         Args:
             api_key: OpenAI API key. If None, will try to load from config.
+            model: Chat model to use. Defaults to DEFAULT_MODEL.
         """
+        self.model = model or self.DEFAULT_MODEL
+        # Token usage of the most recent API call, for progress reporting
+        self.last_usage = {"prompt_tokens": 0, "completion_tokens": 0}
+
         if api_key:
             self.api_key = api_key
         else:
@@ -53,10 +60,11 @@ class OpenAIClient:
             Analysis dictionary with insights, scores, and suggestions
         """
         prompt = self._build_analysis_prompt(keyword, competitors)
+        self.last_usage = {"prompt_tokens": 0, "completion_tokens": 0}
         
         try:
             response = self.client.chat.completions.create(
-                model="gpt-4-turbo-preview",
+                model=self.model,
                 messages=[
                     {"role": "system", "content": "You are an expert Amazon KDP market analyst."},
                     {"role": "user", "content": prompt}
@@ -64,6 +72,11 @@ class OpenAIClient:
                 temperature=0.7
             )
             
+            if response.usage:
+                self.last_usage = {
+                    "prompt_tokens": response.usage.prompt_tokens,
+                    "completion_tokens": response.usage.completion_tokens,
+                }
             result_text = response.choices[0].message.content
             return self._parse_analysis(result_text, keyword, competitors)
             
@@ -154,7 +167,7 @@ Return ONLY valid JSON."""
         
         try:
             response = self.client.chat.completions.create(
-                model="gpt-4-turbo-preview",
+                model=self.model,
                 messages=[
                     {"role": "system", "content": "You are an expert KDP metadata writer."},
                     {"role": "user", "content": prompt}
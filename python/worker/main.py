@@ -2,59 +2,182 @@
 """
 KDP AutoStudio Python Worker
 Handles web scraping and AI reasoning integration.
+
+Runs either as a one-shot command (--keywords) or as a long-lived worker
+(--serve) that takes jobs as line-delimited JSON on stdin and answers on stdout.
 """
 
+import os
 import sys
 import json
 import argparse
+import time
 from scraper.amazon_scraper import AmazonScraper
 from ai.openai_client import OpenAIClient
 from database.idea_processor import IdeaProcessor
 
+WORKER_VERSION = "1.6.0"
+
+
+def research_keyword(keyword, scraper, openai_client, processor, on_phase=None, on_competitors=None):
+    """
+    Research a single seed keyword and return its scored ideas.
+
+    If on_phase is given it is called as on_phase(phase, state, **details) when the
+    scrape, analyze and process phases start and end; end calls carry elapsed_ms.
+    If on_competitors is given it is called with the scraped listings once the scrape ends.
+    """
+    def phase(name, run, details=None):
+        if on_phase:
+            on_phase(name, "start")
+        started = time.monotonic()
+        result = run()
+        if on_phase:
+            extra = details(result) if details else {}
+            on_phase(name, "end", elapsed_ms=int((time.monotonic() - started) * 1000), **extra)
+        return result
+
+    print(f"\nProcessing keyword: {keyword}")
+
+    # Scrape Amazon
+    print("Scraping Amazon listings...")
+    competitors = phase("scrape", lambda: scraper.scrape_keyword(keyword, max_results=20),
+                        lambda result: {"competitors": len(result)})
+    print(f"Found {len(competitors)} competitors")
+    if on_competitors:
+        on_competitors(competitors)
+
+    # Analyze with OpenAI
+    print("Analyzing with OpenAI...")
+    analysis = phase("analyze", lambda: openai_client.analyze_niche(keyword, competitors),
+                     lambda result: dict(openai_client.last_usage))
+
+    # Process and score ideas
+    print("Processing ideas...")
+    return phase("process", lambda: processor.process_analysis(keyword, competitors, analysis))
+
+
+def research_keywords(keywords, scraper, openai_client, processor):
+    """Research each keyword and return the list of scored ideas."""
+    results = []
+    for keyword in keywords:
+        results.extend(research_keyword(keyword, scraper, openai_client, processor))
+    return results
+
+
+def serve(openai_key, model=None):
+    """
+    Serve research jobs over stdin/stdout until EOF or a shutdown request.
+
+    Each request is one JSON line: {"id": ..., "keywords": [...], "workdir": ...}.
+    The optional workdir is private to the job; the streamed ideas are also
+    journaled there so concurrent jobs never share a file.
+    Ideas are streamed back as they are produced, one "idea" line each, so the
+    caller sees the first result without waiting for the whole job. The job ends
+    with a "done" or "error" line carrying the same id. A "keyword_done" line
+    follows the ideas of each seed keyword so callers can checkpoint progress.
+    "phase" lines report when each keyword's scrape, analyze and process phases
+    start and end, with timings, competitor counts and OpenAI token usage.
+    A "competitors" line carries the listings scraped for a keyword, before its ideas.
+    Everything else the worker prints goes to stderr so it can't corrupt the protocol.
+    """
+    protocol_out = sys.stdout
+    sys.stdout = sys.stderr
+
+    def send(message):
+        protocol_out.write(json.dumps(message) + "\n")
+        protocol_out.flush()
+
+    # Heavy components are created once and reused for every job
+    scraper = AmazonScraper()
+    openai_client = OpenAIClient(api_key=openai_key, model=model)
+    processor = IdeaProcessor()
+
+    send({"type": "ready", "version": WORKER_VERSION})
+
+    for line in sys.stdin:
+        line = line.strip()
+        if not line:
+            continue
+
+        job_id = None
+        try:
+            request = json.loads(line)
+            if request.get("type") == "shutdown":
+                break
+
+            job_id = request.get("id")
+            keywords = [k.strip() for k in request.get("keywords", []) if k.strip()]
+            print(f"Starting job {job_id} for keywords: {keywords}")
+
+            journal = None
+            workdir = request.get("workdir")
+            if workdir:
+                os.makedirs(workdir, exist_ok=True)
+                journal = open(os.path.join(workdir, "ideas.ndjson"), 'a')
+
+            count = 0
+            try:
+                for keyword in keywords:
+                    def on_phase(phase, state, **details):
+                        send({"type": "phase", "id": job_id, "seed": keyword,
+                              "phase": phase, "state": state, **details})
+
+                    def on_competitors(listings):
+                        send({"type": "competitors", "id": job_id, "seed": keyword, "listings": listings})
+
+                    ideas = research_keyword(keyword, scraper, openai_client, processor, on_phase,
+                                             on_competitors)
+                    for idea in ideas:
+                        if journal:
+                            journal.write(json.dumps(idea) + "\n")
+                        send({"type": "idea", "id": job_id, "seed": keyword, "idea": idea})
+                        count += 1
+                    send({"type": "keyword_done", "id": job_id, "seed": keyword, "count": len(ideas)})
+            finally:
+                if journal:
+                    journal.close()
+
+            send({"type": "done", "id": job_id, "count": count})
+        except Exception as e:
+            print(f"Job {job_id} failed: {e}")
+            send({"type": "error", "id": job_id, "message": str(e)})
+
+
 def main():
     parser = argparse.ArgumentParser(description='KDP AutoStudio Python Worker')
-    parser.add_argument('--keywords', type=str, required=True, help='Comma-separated seed keywords')
+    parser.add_argument('--keywords', type=str, help='Comma-separated seed keywords')
     parser.add_argument('--openai-key', type=str, help='OpenAI API key (or use config)')
+    parser.add_argument('--model', type=str, help='OpenAI model (defaults to the client default)')
     parser.add_argument('--output', type=str, default='output.json', help='Output file path')
-    
+    parser.add_argument('--serve', action='store_true', help='Run as a long-lived worker reading jobs from stdin')
+
     args = parser.parse_args()
-    
+
+    if args.serve:
+        serve(args.openai_key, args.model)
+        return
+
+    if not args.keywords:
+        parser.error('--keywords is required unless --serve is given')
+
     keywords = [k.strip() for k in args.keywords.split(',')]
-    
+
     print(f"Starting research for keywords: {keywords}")
-    
+
     # Initialize components
     scraper = AmazonScraper()
-    openai_client = OpenAIClient(api_key=args.openai_key)
+    openai_client = OpenAIClient(api_key=args.openai_key, model=args.model)
     processor = IdeaProcessor()
-    
-    results = []
-    
-    for keyword in keywords:
-        print(f"\nProcessing keyword: {keyword}")
-        
-        # Scrape Amazon
-        print("Scraping Amazon listings...")
-        competitors = scraper.scrape_keyword(keyword, max_results=20)
-        print(f"Found {len(competitors)} competitors")
-        
-        # Analyze with OpenAI
-        print("Analyzing with OpenAI...")
-        analysis = openai_client.analyze_niche(keyword, competitors)
-        
-        # Process and score ideas
-        print("Processing ideas...")
-        ideas = processor.process_analysis(keyword, competitors, analysis)
-        
-        results.extend(ideas)
-    
+
+    results = research_keywords(keywords, scraper, openai_client, processor)
+
     # Save results
     with open(args.output, 'w') as f:
         json.dump(results, f, indent=2)
-    
+
     print(f"\nResearch complete! Generated {len(results)} ideas.")
     print(f"Results saved to: {args.output}")
 
 if __name__ == '__main__':
     main()
-
@@ -2,7 +2,15 @@ package com.kdp.autostudio;
 
 import com.kdp.autostudio.ui.MainWindow;
 import com.kdp.autostudio.config.ConfigManager;
+import com.kdp.autostudio.dao.CachingIdeaDAO;
+import com.kdp.autostudio.dao.CompetitorDAO;
+import com.kdp.autostudio.dao.IdeaDAO;
 import com.kdp.autostudio.database.DatabaseManager;
+import com.kdp.autostudio.service.DurableResearchRunner;
+import com.kdp.autostudio.service.PythonWorkerPool;
+import com.kdp.autostudio.service.ResearchCache;
+import com.kdp.autostudio.service.ResearchService;
+import com.kdp.autostudio.util.AppExecutors;
 import javafx.application.Application;
 import javafx.stage.Stage;
 import org.slf4j.Logger;
@@ -14,6 +22,7 @@ import org.slf4j.LoggerFactory;
  */
 public class KDPAutoStudioApp extends Application {
     private static final Logger logger = LoggerFactory.getLogger(KDPAutoStudioApp.class);
+    private ResearchService researchService;
 
     @Override
     public void start(Stage primaryStage) {
@@ -31,8 +40,33 @@ public class KDPAutoStudioApp extends Application {
             dbManager.initializeDatabase();
             logger.info("Database initialized");
 
+            // One idea DAO and one research service for the whole app: researched ideas are
+            // saved through the same cache the backlog reads, and every caller shares the
+            // service's in-flight deduplication, job scheduler and ingestion pipeline
+            CachingIdeaDAO ideaDAO = new CachingIdeaDAO(new IdeaDAO());
+            researchService = new ResearchService(ideaDAO, PythonWorkerPool.getInstance(), new ResearchCache(),
+                                                  AppExecutors.getInstance(), new CompetitorDAO());
+            DurableResearchRunner researchRunner = new DurableResearchRunner(researchService);
+
+            // Warm up Python workers in the background so the first research job starts fast,
+            // then resume research jobs interrupted by the previous shutdown
+            String apiKey = configManager.getOpenAIApiKey();
+            if (apiKey != null && !apiKey.isEmpty()) {
+                AppExecutors.getInstance().io().execute(() -> {
+                    PythonWorkerPool.getInstance().prestart();
+                    try {
+                        int resumed = researchRunner.resumeUnfinished();
+                        if (resumed > 0) {
+                            logger.info("Resumed {} unfinished research jobs", resumed);
+                        }
+                    } catch (Exception e) {
+                        logger.error("Failed to resume unfinished research jobs", e);
+                    }
+                });
+            }
+
             // Launch main window
-            MainWindow mainWindow = new MainWindow(primaryStage);
+            MainWindow mainWindow = new MainWindow(primaryStage, researchRunner, ideaDAO);
             mainWindow.show();
             logger.info("Application started successfully");
 
@@ -45,6 +79,11 @@ public class KDPAutoStudioApp extends Application {
     @Override
     public void stop() {
         // Cleanup resources
+        if (researchService != null) {
+            researchService.shutdown();
+        }
+        PythonWorkerPool.shutdownInstance();
+        AppExecutors.shutdownInstance();
         DatabaseManager.getInstance().close();
         logger.info("Application stopped");
     }
@@ -11,6 +11,18 @@ public class AppConfig {
     private String assetsPath;
     private String pythonWorkerPath;
     private String openAIModel = "gpt-4-turbo-preview";
+    private int workerPoolSize = 2;
+    private int workerMaxJobs = 25;
+    private int workerStartupTimeoutSeconds = 60;
+    private int researchShardSize = 10;
+    private int researchCacheTtlHours = 168;
+    private int researchCacheMaxEntries = 5000;
+    private int researchJobTimeoutMinutes = 60;
+    private int researchKeywordTimeoutMinutes = 10;
+    private int ingestionQueueCapacity = 1000;
+    private int ingestionBatchSize = 200;
+    private int ideaCacheMaxMegabytes = 64;
+    private int topIdeasPerStatus = 200;
 
     // Getters and setters
     public String getOpenAIApiKey() {
@@ -68,5 +80,100 @@ public class AppConfig {
     public void setOpenAIModel(String openAIModel) {
         this.openAIModel = openAIModel;
     }
-}
 
+    public int getWorkerPoolSize() {
+        return workerPoolSize;
+    }
+
+    public void setWorkerPoolSize(int workerPoolSize) {
+        this.workerPoolSize = workerPoolSize;
+    }
+
+    public int getWorkerMaxJobs() {
+        return workerMaxJobs;
+    }
+
+    public void setWorkerMaxJobs(int workerMaxJobs) {
+        this.workerMaxJobs = workerMaxJobs;
+    }
+
+    public int getWorkerStartupTimeoutSeconds() {
+        return workerStartupTimeoutSeconds;
+    }
+
+    public void setWorkerStartupTimeoutSeconds(int workerStartupTimeoutSeconds) {
+        this.workerStartupTimeoutSeconds = workerStartupTimeoutSeconds;
+    }
+
+    public int getResearchShardSize() {
+        return researchShardSize;
+    }
+
+    public void setResearchShardSize(int researchShardSize) {
+        this.researchShardSize = researchShardSize;
+    }
+
+    public int getResearchCacheTtlHours() {
+        return researchCacheTtlHours;
+    }
+
+    public void setResearchCacheTtlHours(int researchCacheTtlHours) {
+        this.researchCacheTtlHours = researchCacheTtlHours;
+    }
+
+    public int getResearchCacheMaxEntries() {
+        return researchCacheMaxEntries;
+    }
+
+    public void setResearchCacheMaxEntries(int researchCacheMaxEntries) {
+        this.researchCacheMaxEntries = researchCacheMaxEntries;
+    }
+
+    public int getResearchJobTimeoutMinutes() {
+        return researchJobTimeoutMinutes;
+    }
+
+    public void setResearchJobTimeoutMinutes(int researchJobTimeoutMinutes) {
+        this.researchJobTimeoutMinutes = researchJobTimeoutMinutes;
+    }
+
+    public int getResearchKeywordTimeoutMinutes() {
+        return researchKeywordTimeoutMinutes;
+    }
+
+    public void setResearchKeywordTimeoutMinutes(int researchKeywordTimeoutMinutes) {
+        this.researchKeywordTimeoutMinutes = researchKeywordTimeoutMinutes;
+    }
+
+    public int getIngestionQueueCapacity() {
+        return ingestionQueueCapacity;
+    }
+
+    public void setIngestionQueueCapacity(int ingestionQueueCapacity) {
+        this.ingestionQueueCapacity = ingestionQueueCapacity;
+    }
+
+    public int getIngestionBatchSize() {
+        return ingestionBatchSize;
+    }
+
+    public void setIngestionBatchSize(int ingestionBatchSize) {
+        this.ingestionBatchSize = ingestionBatchSize;
+    }
+
+    public int getIdeaCacheMaxMegabytes() {
+        return ideaCacheMaxMegabytes;
+    }
+
+    public void setIdeaCacheMaxMegabytes(int ideaCacheMaxMegabytes) {
+        this.ideaCacheMaxMegabytes = ideaCacheMaxMegabytes;
+    }
+
+    public int getTopIdeasPerStatus() {
+        return topIdeasPerStatus;
+    }
+
+    public void setTopIdeasPerStatus(int topIdeasPerStatus) {
+        this.topIdeasPerStatus = topIdeasPerStatus;
+    }
+}
@@ -0,0 +1,317 @@
+package com.kdp.autostudio.dao;
+
+import com.kdp.autostudio.database.DatabaseManager;
+import com.kdp.autostudio.database.PooledConnection;
+
+import java.sql.*;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Data Access Object for the performance samples of published books.
+ * Every raw sample is also folded into daily and weekly rollups in the same transaction,
+ * so a trend over any window is read from at most a few hundred rows.
+ */
+public class AnalyticsDAO {
+
+    /**
+     * One observation of a listing.
+     */
+    public record Sample(Integer projectId, String asin, Integer bsr, Double price, Integer reviewCount,
+                         Double rating, LocalDateTime recordedAt) {
+    }
+
+    /**
+     * Granularity of a trend. Each resolution is used for windows up to its maximum length.
+     */
+    public enum Resolution {
+        RAW(Duration.ofDays(2)),
+        DAILY(Duration.ofDays(180)),
+        WEEKLY(null);
+
+        private final Duration maxWindow;
+
+        Resolution(Duration maxWindow) {
+            this.maxWindow = maxWindow;
+        }
+
+        /**
+         * The finest resolution that keeps a window of this length to a chartable number of points.
+         */
+        public static Resolution forWindow(Duration window) {
+            for (Resolution resolution : values()) {
+                if (resolution.maxWindow == null || window.compareTo(resolution.maxWindow) <= 0) {
+                    return resolution;
+                }
+            }
+            return WEEKLY;
+        }
+    }
+
+    /**
+     * One point of a trend: a single sample at RAW resolution, otherwise a day or week.
+     *
+     * @param start Time of the sample, or start of the period
+     * @param samples Number of samples in the period
+     * @param minBsr Best (lowest) BSR in the period, or null if none was recorded
+     * @param maxBsr Worst (highest) BSR in the period
+     * @param avgBsr Average BSR in the period
+     * @param lastPrice Most recent price in the period
+     * @param reviewCount Most recent review count in the period
+     * @param reviewDelta Reviews gained since the previous point, or within the period for the first point
+     * @param lastRating Most recent rating in the period
+     */
+    public record TrendPoint(LocalDateTime start, int samples, Integer minBsr, Integer maxBsr, Double avgBsr,
+                             Double lastPrice, Integer reviewCount, Integer reviewDelta, Double lastRating) {
+    }
+
+    private static final String INSERT_SQL = """
+        INSERT INTO analytics (project_id, asin, bsr, price, review_count, rating, recorded_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?)
+    """;
+    private static final String DAILY_UPSERT_SQL = rollupUpsert("analytics_daily");
+    private static final String WEEKLY_UPSERT_SQL = rollupUpsert("analytics_weekly");
+
+    private final DatabaseManager database;
+
+    public AnalyticsDAO() {
+        this(DatabaseManager.getInstance());
+    }
+
+    public AnalyticsDAO(DatabaseManager database) {
+        this.database = database;
+    }
+
+    /**
+     * Save samples and fold them into the rollups, all in one transaction.
+     */
+    public void recordAll(Collection<Sample> samples) throws SQLException {
+        if (samples.isEmpty()) {
+            return;
+        }
+
+        database.write(db -> {
+            PreparedStatement insert = db.prepare(INSERT_SQL);
+            for (Sample sample : samples) {
+                setNullable(insert, 1, sample.projectId(), Types.INTEGER);
+                insert.setString(2, sample.asin());
+                setNullable(insert, 3, sample.bsr(), Types.INTEGER);
+                setNullable(insert, 4, sample.price(), Types.REAL);
+                setNullable(insert, 5, sample.reviewCount(), Types.INTEGER);
+                setNullable(insert, 6, sample.rating(), Types.REAL);
+                insert.setTimestamp(7, Timestamp.valueOf(sample.recordedAt()));
+                insert.addBatch();
+            }
+            insert.executeBatch();
+            addToRollups(db, samples);
+            return null;
+        });
+    }
+
+    /**
+     * Recompute both rollups from the raw samples, e.g. after samples were written
+     * without going through {@link #recordAll}.
+     */
+    public void rebuildRollups() throws SQLException {
+        String sql = """
+            SELECT project_id, asin, bsr, price, review_count, rating, recorded_at
+            FROM analytics WHERE asin IS NOT NULL ORDER BY recorded_at
+        """;
+
+        database.write(db -> {
+            try (Statement stmt = db.getConnection().createStatement()) {
+                stmt.executeUpdate("DELETE FROM analytics_daily");
+                stmt.executeUpdate("DELETE FROM analytics_weekly");
+            }
+            List<Sample> chunk = new ArrayList<>();
+            try (ResultSet rs = db.prepare(sql).executeQuery()) {
+                while (rs.next()) {
+                    chunk.add(new Sample(getNullableInt(rs, 1), rs.getString(2), getNullableInt(rs, 3),
+                            getNullableDouble(rs, 4), getNullableInt(rs, 5), getNullableDouble(rs, 6),
+                            rs.getTimestamp(7).toLocalDateTime()));
+                    if (chunk.size() == 1000) {
+                        addToRollups(db, chunk);
+                        chunk.clear();
+                    }
+                }
+            }
+            addToRollups(db, chunk);
+            return null;
+        });
+    }
+
+    /**
+     * Trend of a listing between two times, at the resolution chosen by {@link Resolution#forWindow}.
+     */
+    public List<TrendPoint> findTrend(String asin, LocalDateTime from, LocalDateTime to) throws SQLException {
+        return findTrend(asin, from, to, Resolution.forWindow(Duration.between(from, to)));
+    }
+
+    /**
+     * Trend of a listing between two times at a given resolution, oldest first.
+     * Daily and weekly points cover every period overlapping the window.
+     */
+    public List<TrendPoint> findTrend(String asin, LocalDateTime from, LocalDateTime to, Resolution resolution)
+            throws SQLException {
+        if (resolution == Resolution.RAW) {
+            return findRawTrend(asin, from, to);
+        }
+
+        String table = resolution == Resolution.DAILY ? "analytics_daily" : "analytics_weekly";
+        String sql = "SELECT bucket_start, samples, min_bsr, max_bsr, sum_bsr, bsr_samples, first_review_count,"
+            + " last_review_count, last_price, last_rating FROM " + table
+            + " WHERE asin = ? AND bucket_start >= ? AND bucket_start <= ? ORDER BY bucket_start";
+
+        return database.read(db -> {
+            PreparedStatement stmt = db.prepare(sql);
+            stmt.setString(1, asin);
+            stmt.setString(2, bucketStart(from.toLocalDate(), resolution).toString());
+            stmt.setString(3, bucketStart(to.toLocalDate(), resolution).toString());
+            List<TrendPoint> points = new ArrayList<>();
+            Integer previousReviews = null;
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    int bsrSamples = rs.getInt(6);
+                    Integer firstReviews = getNullableInt(rs, 7);
+                    Integer lastReviews = getNullableInt(rs, 8);
+                    Integer baseline = previousReviews != null ? previousReviews : firstReviews;
+                    points.add(new TrendPoint(
+                        LocalDate.parse(rs.getString(1)).atStartOfDay(),
+                        rs.getInt(2),
+                        getNullableInt(rs, 3),
+                        getNullableInt(rs, 4),
+                        bsrSamples == 0 ? null : (double) rs.getLong(5) / bsrSamples,
+                        getNullableDouble(rs, 9),
+                        lastReviews,
+                        lastReviews != null && baseline != null ? lastReviews - baseline : null,
+                        getNullableDouble(rs, 10)));
+                    if (lastReviews != null) {
+                        previousReviews = lastReviews;
+                    }
+                }
+            }
+            return points;
+        });
+    }
+
+    private List<TrendPoint> findRawTrend(String asin, LocalDateTime from, LocalDateTime to) throws SQLException {
+        String sql = """
+            SELECT recorded_at, bsr, price, review_count, rating FROM analytics
+            WHERE asin = ? AND recorded_at >= ? AND recorded_at <= ?
+            ORDER BY recorded_at
+        """;
+
+        return database.read(db -> {
+            PreparedStatement stmt = db.prepare(sql);
+            stmt.setString(1, asin);
+            stmt.setTimestamp(2, Timestamp.valueOf(from));
+            stmt.setTimestamp(3, Timestamp.valueOf(to));
+            List<TrendPoint> points = new ArrayList<>();
+            Integer previousReviews = null;
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Integer bsr = getNullableInt(rs, 2);
+                    Integer reviews = getNullableInt(rs, 4);
+                    Integer delta = reviews != null && previousReviews != null ? reviews - previousReviews : null;
+                    points.add(new TrendPoint(rs.getTimestamp(1).toLocalDateTime(), 1, bsr, bsr,
+                            bsr == null ? null : bsr.doubleValue(), getNullableDouble(rs, 3), reviews, delta,
+                            getNullableDouble(rs, 5)));
+                    if (reviews != null) {
+                        previousReviews = reviews;
+                    }
+                }
+            }
+            return points;
+        });
+    }
+
+    private void addToRollups(PooledConnection db, Collection<Sample> samples) throws SQLException {
+        PreparedStatement daily = db.prepare(DAILY_UPSERT_SQL);
+        PreparedStatement weekly = db.prepare(WEEKLY_UPSERT_SQL);
+        for (Sample sample : samples) {
+            LocalDate day = sample.recordedAt().toLocalDate();
+            bindRollup(daily, sample, bucketStart(day, Resolution.DAILY));
+            daily.addBatch();
+            bindRollup(weekly, sample, bucketStart(day, Resolution.WEEKLY));
+            weekly.addBatch();
+        }
+        // Upserts of the same period must apply in order, so each table runs as one batch
+        daily.executeBatch();
+        weekly.executeBatch();
+    }
+
+    private static LocalDate bucketStart(LocalDate day, Resolution resolution) {
+        return resolution == Resolution.WEEKLY ? day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)) : day;
+    }
+
+    private static void bindRollup(PreparedStatement stmt, Sample sample, LocalDate bucket) throws SQLException {
+        Timestamp recordedAt = Timestamp.valueOf(sample.recordedAt());
+        stmt.setString(1, sample.asin());
+        stmt.setString(2, bucket.toString());
+        setNullable(stmt, 3, sample.bsr(), Types.INTEGER);
+        setNullable(stmt, 4, sample.bsr(), Types.INTEGER);
+        stmt.setLong(5, sample.bsr() != null ? sample.bsr() : 0);
+        stmt.setInt(6, sample.bsr() != null ? 1 : 0);
+        stmt.setTimestamp(7, recordedAt);
+        setNullable(stmt, 8, sample.reviewCount(), Types.INTEGER);
+        stmt.setTimestamp(9, recordedAt);
+        setNullable(stmt, 10, sample.reviewCount(), Types.INTEGER);
+        setNullable(stmt, 11, sample.price(), Types.REAL);
+        setNullable(stmt, 12, sample.rating(), Types.REAL);
+    }
+
+    /**
+     * Adds one sample to a period row. SQLite evaluates every SET expression against the
+     * row as it was before the update, so the CASEs compare with the old first and last times.
+     */
+    private static String rollupUpsert(String table) {
+        return """
+            INSERT INTO %s (asin, bucket_start, samples, min_bsr, max_bsr, sum_bsr, bsr_samples,
+                            first_recorded_at, first_review_count, last_recorded_at, last_review_count,
+                            last_price, last_rating)
+            VALUES (?, ?, 1, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (asin, bucket_start) DO UPDATE SET
+                samples = samples + 1,
+                min_bsr = CASE WHEN min_bsr IS NULL OR excluded.min_bsr < min_bsr
+                               THEN COALESCE(excluded.min_bsr, min_bsr) ELSE min_bsr END,
+                max_bsr = CASE WHEN max_bsr IS NULL OR excluded.max_bsr > max_bsr
+                               THEN COALESCE(excluded.max_bsr, max_bsr) ELSE max_bsr END,
+                sum_bsr = sum_bsr + excluded.sum_bsr,
+                bsr_samples = bsr_samples + excluded.bsr_samples,
+                first_review_count = CASE WHEN excluded.first_recorded_at < first_recorded_at
+                                          THEN excluded.first_review_count ELSE first_review_count END,
+                first_recorded_at = MIN(first_recorded_at, excluded.first_recorded_at),
+                last_review_count = CASE WHEN excluded.last_recorded_at >= last_recorded_at
+                                         THEN excluded.last_review_count ELSE last_review_count END,
+                last_price = CASE WHEN excluded.last_recorded_at >= last_recorded_at
+                                  THEN excluded.last_price ELSE last_price END,
+                last_rating = CASE WHEN excluded.last_recorded_at >= last_recorded_at
+                                   THEN excluded.last_rating ELSE last_rating END,
+                last_recorded_at = MAX(last_recorded_at, excluded.last_recorded_at)
+            """.formatted(table);
+    }
+
+    private static void setNullable(PreparedStatement stmt, int index, Object value, int sqlType) throws SQLException {
+        if (value == null) {
+            stmt.setNull(index, sqlType);
+        } else {
+            stmt.setObject(index, value);
+        }
+    }
+
+    private static Integer getNullableInt(ResultSet rs, int index) throws SQLException {
+        int value = rs.getInt(index);
+        return rs.wasNull() ? null : value;
+    }
+
+    private static Double getNullableDouble(ResultSet rs, int index) throws SQLException {
+        double value = rs.getDouble(index);
+        return rs.wasNull() ? null : value;
+    }
+}
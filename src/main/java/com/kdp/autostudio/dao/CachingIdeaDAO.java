@@ -0,0 +1,533 @@
+package com.kdp.autostudio.dao;
+
+import com.kdp.autostudio.config.ConfigManager;
+import com.kdp.autostudio.model.Idea;
+import com.kdp.autostudio.model.IdeaSummary;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * In-memory working set in front of another IIdeaDAO.
+ * Ideas are cached a whole status at a time, each status as a view ordered by score,
+ * so filtering, sorting and paging a cached status never reaches the database.
+ * A status is loaded on its first read if it fits in the memory budget; beyond the
+ * budget, the least recently used statuses are evicted. A status too large to fit is
+ * remembered and read from the delegate until the cache is invalidated. Writes go to the delegate
+ * first and are then applied to the cached views.
+ *
+ * The best ideas of every status are also ranked in a {@link TopIdeasIndex}, so the first
+ * page by score is served from memory even for statuses too large to cache, and kept up to
+ * date by inserts, status changes and rescoring without reloading.
+ *
+ * Only writes made through this DAO are seen, so research should save through the same
+ * instance. Call {@link #invalidate()} after ideas were changed elsewhere. Cached ideas
+ * are shared between callers and must not be modified.
+ */
+public class CachingIdeaDAO implements IIdeaDAO {
+    private final IIdeaDAO delegate;
+    private final long maxBytes;
+    private final TopIdeasIndex topIdeas;
+
+    // Access-ordered, so iteration starts with the least recently used status
+    private final LinkedHashMap<String, StatusView> views = new LinkedHashMap<>(16, 0.75f, true);
+    private final NavigableMap<IdeaCursor, Idea> allIdeas = new TreeMap<>(IdeaCursor.BEST_FIRST);
+    private final Map<Integer, Cached> byId = new HashMap<>();
+    private boolean complete;
+    private long cachedBytes;
+    private long version;
+
+    // Statuses (null for all ideas) found too large to cache, read from the delegate until invalidated
+    private final Set<String> oversized = new HashSet<>();
+    // Version at which a load was last discarded for a concurrent write, or -1
+    private long racedVersion = -1;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * A cached idea with the status, key and size it was cached under.
+     */
+    private record Cached(Idea idea, String status, IdeaCursor key, long bytes) {
+    }
+
+    private static class StatusView {
+        private final NavigableMap<IdeaCursor, Idea> ideas = new TreeMap<>(IdeaCursor.BEST_FIRST);
+        private long bytes;
+    }
+
+    /**
+     * Create a cache with the memory budget taken from the application configuration.
+     */
+    public CachingIdeaDAO(IIdeaDAO delegate) {
+        this(delegate, ConfigManager.getInstance().getConfig().getIdeaCacheMaxMegabytes() * 1024L * 1024L,
+             ConfigManager.getInstance().getConfig().getTopIdeasPerStatus());
+    }
+
+    /**
+     * @param delegate DAO that holds the ideas
+     * @param maxBytes Estimated heap the cached ideas may use
+     * @param topIdeasPerStatus Number of best ideas ranked per status
+     */
+    public CachingIdeaDAO(IIdeaDAO delegate, long maxBytes, int topIdeasPerStatus) {
+        this.delegate = delegate;
+        this.maxBytes = Math.max(0, maxBytes);
+        this.topIdeas = new TopIdeasIndex(topIdeasPerStatus);
+    }
+
+    @Override
+    public void insert(Idea idea) throws SQLException {
+        delegate.insert(idea);
+        synchronized (this) {
+            version++;
+            topIdeas.add(summarize(idea));
+            addToViews(idea);
+            evictOverBudget();
+        }
+    }
+
+    @Override
+    public void insertAll(Collection<Idea> ideas) throws SQLException {
+        delegate.insertAll(ideas);
+        synchronized (this) {
+            version++;
+            for (Idea idea : ideas) {
+                topIdeas.add(summarize(idea));
+                addToViews(idea);
+            }
+            evictOverBudget();
+        }
+    }
+
+    @Override
+    public List<Idea> findAll() throws SQLException {
+        return findByStatus(null);
+    }
+
+    @Override
+    public List<Idea> findByStatus(String status) throws SQLException {
+        synchronized (this) {
+            NavigableMap<IdeaCursor, Idea> view = cachedView(status, true);
+            if (view != null) {
+                return new ArrayList<>(view.values());
+            }
+        }
+        if (warm(status)) {
+            synchronized (this) {
+                NavigableMap<IdeaCursor, Idea> view = cachedView(status, false);
+                if (view != null) {
+                    return new ArrayList<>(view.values());
+                }
+            }
+        }
+        return status == null ? delegate.findAll() : delegate.findByStatus(status);
+    }
+
+    @Override
+    public IdeaPage findPage(IdeaQuery query) throws SQLException {
+        synchronized (this) {
+            NavigableMap<IdeaCursor, Idea> view = cachedView(query.status(), true);
+            if (view != null) {
+                return page(view, query);
+            }
+        }
+        if (warm(query.status())) {
+            synchronized (this) {
+                NavigableMap<IdeaCursor, Idea> view = cachedView(query.status(), false);
+                if (view != null) {
+                    return page(view, query);
+                }
+            }
+        }
+        return delegate.findPage(query);
+    }
+
+    /**
+     * The first page by descending score comes from the cached view if there is one, otherwise
+     * from the ranking of the best ideas, which is loaded with one query when it cannot answer.
+     */
+    @Override
+    public List<IdeaSummary> findSummaries(IdeaQuery query) throws SQLException {
+        if (query.after() != null || query.ascending() || query.pageSize() > topIdeas.capacity()) {
+            return summarize(findPage(query));
+        }
+
+        synchronized (this) {
+            NavigableMap<IdeaCursor, Idea> view = cachedView(query.status(), false);
+            if (view != null) {
+                hits.incrementAndGet();
+                return summarize(page(view, query));
+            }
+            List<IdeaSummary> top = topIdeas.top(query.status(), query.pageSize());
+            if (top != null) {
+                hits.incrementAndGet();
+                return top;
+            }
+        }
+        misses.incrementAndGet();
+
+        long startVersion;
+        synchronized (this) {
+            startVersion = version;
+        }
+        List<IdeaSummary> best = delegate.findSummaries(IdeaQuery.firstPage(query.status(), topIdeas.capacity()));
+        synchronized (this) {
+            // A write meanwhile may already be missing from what was read
+            if (version == startVersion) {
+                topIdeas.load(query.status(), best);
+            }
+        }
+        return best.subList(0, Math.min(query.pageSize(), best.size()));
+    }
+
+    /**
+     * Searches go straight to the delegate, which has a full-text index for them.
+     */
+    @Override
+    public List<IdeaSearchResult> search(String text, String status, int limit) throws SQLException {
+        return delegate.search(text, status, limit);
+    }
+
+    @Override
+    public Stream<Idea> stream(String status) throws SQLException {
+        synchronized (this) {
+            NavigableMap<IdeaCursor, Idea> view = cachedView(status, true);
+            if (view != null) {
+                return new ArrayList<>(view.values()).stream();
+            }
+        }
+        // Streaming is for reading more than fits in memory; do not load a view for it
+        return delegate.stream(status);
+    }
+
+    @Override
+    public Idea findById(int id) throws SQLException {
+        synchronized (this) {
+            Cached cached = byId.get(id);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached.idea();
+            }
+        }
+        misses.incrementAndGet();
+        return delegate.findById(id);
+    }
+
+    @Override
+    public void updateStatus(int id, String status) throws SQLException {
+        delegate.updateStatus(id, status);
+        synchronized (this) {
+            topIdeas.moveStatus(List.of(id), status);
+            moveCached(List.of(id), status);
+        }
+    }
+
+    @Override
+    public int updateStatus(Collection<Integer> ids, String status) throws SQLException {
+        int updated = delegate.updateStatus(ids, status);
+        synchronized (this) {
+            topIdeas.moveStatus(ids, status);
+            moveCached(ids, status);
+        }
+        return updated;
+    }
+
+    @Override
+    public int applyStatusRule(StatusRule rule) throws SQLException {
+        int updated = delegate.applyStatusRule(rule);
+        synchronized (this) {
+            topIdeas.applyStatusRule(rule, updated);
+            StatusView from = views.get(rule.fromStatus());
+            if (from == null) {
+                if (updated > 0) {
+                    version++;
+                    dropView(rule.toStatus());
+                }
+                return updated;
+            }
+            List<Integer> ids = new ArrayList<>();
+            for (Map.Entry<IdeaCursor, Idea> entry : from.ideas.entrySet()) {
+                if (rule.matches(rule.fromStatus(), entry.getKey().score())) {
+                    ids.add(entry.getKey().id());
+                }
+            }
+            moveCached(ids, rule.toStatus());
+        }
+        return updated;
+    }
+
+    /**
+     * Rescored copies replace the cached ideas at their new place in their view, leaving the
+     * instances callers already hold unchanged. An idea that is not cached belongs to a
+     * status that is not cached either, so no view is left out of date.
+     */
+    @Override
+    public int updateScores(int[] ids, double[] scores) throws SQLException {
+        int updated = delegate.updateScores(ids, scores);
+        synchronized (this) {
+            version++;
+            topIdeas.updateScores(ids, scores);
+            for (int i = 0; i < ids.length; i++) {
+                Cached cached = byId.get(ids[i]);
+                if (cached != null) {
+                    removeFromViews(cached);
+                    Idea idea = cached.idea().copy();
+                    idea.setScore(scores[i]);
+                    addToViews(idea);
+                }
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * Apply a status change the delegate has made to the cached ideas, replacing them with
+     * changed copies.
+     */
+    private synchronized void moveCached(Collection<Integer> ids, String status) {
+        version++;
+        LocalDateTime approvedAt = "approved".equals(status) ? LocalDateTime.now() : null;
+        boolean missing = false;
+        for (int id : ids) {
+            Cached cached = byId.get(id);
+            if (cached == null) {
+                missing = true;
+                continue;
+            }
+            removeFromViews(cached);
+            Idea idea = cached.idea().copy();
+            idea.setStatus(status);
+            idea.setApprovedAt(approvedAt);
+            addToViews(idea);
+        }
+        if (missing) {
+            // Ideas that were not cached, so the view they moved into would be missing them
+            dropView(status);
+        }
+        evictOverBudget();
+    }
+
+    /**
+     * Forget every cached idea, so the next reads go to the database.
+     */
+    public synchronized void invalidate() {
+        version++;
+        topIdeas.clear();
+        views.clear();
+        allIdeas.clear();
+        byId.clear();
+        complete = false;
+        cachedBytes = 0;
+        oversized.clear();
+        racedVersion = -1;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public double getHitRate() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0.0 : (double) hits.get() / total;
+    }
+
+    public synchronized int getCachedIdeaCount() {
+        return byId.size();
+    }
+
+    public synchronized long getEstimatedBytes() {
+        return cachedBytes;
+    }
+
+    /**
+     * Ideas of a status in score order, or every idea for a null status,
+     * or null if they are not all cached. Must be called holding the lock.
+     */
+    private NavigableMap<IdeaCursor, Idea> cachedView(String status, boolean count) {
+        NavigableMap<IdeaCursor, Idea> view = null;
+        if (status == null) {
+            view = complete ? allIdeas : null;
+        } else {
+            StatusView cached = views.get(status);
+            if (cached != null) {
+                view = cached.ideas;
+            } else if (complete) {
+                view = new TreeMap<>(IdeaCursor.BEST_FIRST);
+            }
+        }
+        if (count) {
+            (view != null ? hits : misses).incrementAndGet();
+        }
+        return view;
+    }
+
+    private static IdeaPage page(NavigableMap<IdeaCursor, Idea> view, IdeaQuery query) {
+        NavigableMap<IdeaCursor, Idea> ordered = query.ascending() ? view.descendingMap() : view;
+        if (query.after() != null) {
+            ordered = ordered.tailMap(query.after(), false);
+        }
+        List<Idea> ideas = new ArrayList<>(Math.min(query.pageSize(), ordered.size()));
+        Iterator<Idea> rows = ordered.values().iterator();
+        while (rows.hasNext() && ideas.size() < query.pageSize()) {
+            ideas.add(rows.next());
+        }
+        IdeaCursor next = rows.hasNext() ? IdeaCursor.of(ideas.get(ideas.size() - 1)) : null;
+        return new IdeaPage(ideas, next);
+    }
+
+    private static IdeaSummary summarize(Idea idea) {
+        return new IdeaSummary(idea.getId(), idea.getKeyword(), idea.getTitle(), idea.getScore(),
+                               idea.getDemand(), idea.getCompetition(), idea.getStatus());
+    }
+
+    private static List<IdeaSummary> summarize(IdeaPage page) {
+        return page.ideas().stream().map(CachingIdeaDAO::summarize).toList();
+    }
+
+    /**
+     * Load every idea of a status (or all ideas) into the cache, giving up as soon as
+     * they exceed the memory budget. The load runs without holding the lock and is
+     * discarded if a write happened meanwhile; after that, loading waits for a read
+     * with no write since the last one, so bulk inserts do not make every read twice.
+     *
+     * @return Whether the ideas are now cached
+     */
+    private boolean warm(String status) throws SQLException {
+        long startVersion;
+        synchronized (this) {
+            if (oversized.contains(status)) {
+                return false;
+            }
+            if (racedVersion >= 0 && racedVersion != version) {
+                // Still being written to
+                racedVersion = version;
+                return false;
+            }
+            startVersion = version;
+        }
+
+        Map<String, List<Idea>> loaded = new HashMap<>();
+        long loadedBytes = 0;
+        try (Stream<Idea> rows = delegate.stream(status)) {
+            Iterator<Idea> it = rows.iterator();
+            while (it.hasNext()) {
+                Idea idea = it.next();
+                loadedBytes += estimateBytes(idea);
+                if (loadedBytes > maxBytes) {
+                    synchronized (this) {
+                        oversized.add(status);
+                    }
+                    return false;
+                }
+                loaded.computeIfAbsent(idea.getStatus(), s -> new ArrayList<>()).add(idea);
+            }
+        }
+
+        synchronized (this) {
+            if (version != startVersion) {
+                racedVersion = version;
+                return false;
+            }
+            racedVersion = -1;
+            if (status == null) {
+                invalidate();
+                complete = true;
+            } else {
+                dropView(status);
+                loaded.putIfAbsent(status, new ArrayList<>());
+            }
+            loaded.forEach((loadedStatus, ideas) -> {
+                views.put(loadedStatus, new StatusView());
+                ideas.forEach(this::addToViews);
+            });
+            evictOverBudget();
+            return cachedView(status, false) != null;
+        }
+    }
+
+    /**
+     * Add an idea to the view of its status, if that status is cached.
+     */
+    private void addToViews(Idea idea) {
+        StatusView view = views.get(idea.getStatus());
+        if (view == null) {
+            if (!complete) {
+                return;
+            }
+            view = new StatusView();
+            views.put(idea.getStatus(), view);
+        }
+        Cached cached = new Cached(idea, idea.getStatus(), IdeaCursor.of(idea), estimateBytes(idea));
+        view.ideas.put(cached.key(), idea);
+        view.bytes += cached.bytes();
+        allIdeas.put(cached.key(), idea);
+        byId.put(idea.getId(), cached);
+        cachedBytes += cached.bytes();
+    }
+
+    private void removeFromViews(Cached cached) {
+        StatusView view = views.get(cached.status());
+        if (view != null && view.ideas.remove(cached.key()) != null) {
+            view.bytes -= cached.bytes();
+            cachedBytes -= cached.bytes();
+        }
+        allIdeas.remove(cached.key());
+        byId.remove(cached.idea().getId());
+    }
+
+    private void dropView(String status) {
+        StatusView view = views.remove(status);
+        complete = false;
+        if (view == null) {
+            return;
+        }
+        for (Map.Entry<IdeaCursor, Idea> entry : view.ideas.entrySet()) {
+            allIdeas.remove(entry.getKey());
+            byId.remove(entry.getKey().id());
+        }
+        cachedBytes -= view.bytes;
+    }
+
+    private void evictOverBudget() {
+        while (cachedBytes > maxBytes && !views.isEmpty()) {
+            dropView(views.keySet().iterator().next());
+            evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Rough heap footprint of an idea: object and field overhead plus two bytes per character of text.
+     */
+    private static long estimateBytes(Idea idea) {
+        long bytes = 160;
+        for (String text : new String[] {idea.getKeyword(), idea.getTitle(), idea.getSubtitle(), idea.getRisk(),
+                                         idea.getProfitability(), idea.getAiExplanation(), idea.getStatus()}) {
+            if (text != null) {
+                bytes += 48 + 2L * text.length();
+            }
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,139 @@
+package com.kdp.autostudio.dao;
+
+import com.kdp.autostudio.model.Idea;
+import com.kdp.autostudio.model.IdeaSummary;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * IIdeaDAO that keeps an {@link IdeaColumnStore} in step with another DAO.
+ * Reads go straight to the delegate; writes go to the delegate first and are then
+ * applied to the store. The store is loaded on first use, and writes made elsewhere
+ * are only seen after {@link #invalidate()}.
+ */
+public class ColumnarIdeaDAO implements IIdeaDAO {
+    private final IIdeaDAO delegate;
+    private IdeaColumnStore store;
+
+    public ColumnarIdeaDAO(IIdeaDAO delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * The columns of every idea, loading them from the delegate on first use.
+     */
+    public synchronized IdeaColumnStore getStore() throws SQLException {
+        if (store == null) {
+            store = IdeaColumnStore.load(delegate);
+        }
+        return store;
+    }
+
+    /**
+     * Drop the store, so the next {@link #getStore()} reloads it from the delegate.
+     */
+    public synchronized void invalidate() {
+        store = null;
+    }
+
+    @Override
+    public void insert(Idea idea) throws SQLException {
+        delegate.insert(idea);
+        synchronized (this) {
+            if (store != null) {
+                store.put(idea);
+            }
+        }
+    }
+
+    @Override
+    public void insertAll(Collection<Idea> ideas) throws SQLException {
+        delegate.insertAll(ideas);
+        synchronized (this) {
+            if (store != null) {
+                store.putAll(ideas);
+            }
+        }
+    }
+
+    @Override
+    public List<Idea> findAll() throws SQLException {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<Idea> findByStatus(String status) throws SQLException {
+        return delegate.findByStatus(status);
+    }
+
+    @Override
+    public IdeaPage findPage(IdeaQuery query) throws SQLException {
+        return delegate.findPage(query);
+    }
+
+    @Override
+    public List<IdeaSummary> findSummaries(IdeaQuery query) throws SQLException {
+        return delegate.findSummaries(query);
+    }
+
+    @Override
+    public List<IdeaSearchResult> search(String text, String status, int limit) throws SQLException {
+        return delegate.search(text, status, limit);
+    }
+
+    @Override
+    public Stream<Idea> stream(String status) throws SQLException {
+        return delegate.stream(status);
+    }
+
+    @Override
+    public Idea findById(int id) throws SQLException {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public void updateStatus(int id, String status) throws SQLException {
+        delegate.updateStatus(id, status);
+        synchronized (this) {
+            if (store != null) {
+                store.setStatus(List.of(id), status);
+            }
+        }
+    }
+
+    @Override
+    public int updateStatus(Collection<Integer> ids, String status) throws SQLException {
+        int updated = delegate.updateStatus(ids, status);
+        synchronized (this) {
+            if (store != null) {
+                store.setStatus(ids, status);
+            }
+        }
+        return updated;
+    }
+
+    @Override
+    public int applyStatusRule(StatusRule rule) throws SQLException {
+        int updated = delegate.applyStatusRule(rule);
+        synchronized (this) {
+            if (store != null) {
+                store.applyStatusRule(rule);
+            }
+        }
+        return updated;
+    }
+
+    @Override
+    public int updateScores(int[] ids, double[] scores) throws SQLException {
+        int updated = delegate.updateScores(ids, scores);
+        synchronized (this) {
+            if (store != null) {
+                store.setScores(ids, scores);
+            }
+        }
+        return updated;
+    }
+}
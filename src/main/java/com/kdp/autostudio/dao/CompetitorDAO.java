@@ -0,0 +1,166 @@
+package com.kdp.autostudio.dao;
+
+import com.kdp.autostudio.database.DatabaseManager;
+import com.kdp.autostudio.model.Competitor;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data Access Object for the competing listings scraped for each idea.
+ * A listing is stored once per ASIN and linked to every idea it was scraped for,
+ * so scraping a keyword again refreshes the existing rows instead of adding
+ * duplicates, even though each research run saves new ideas.
+ */
+public class CompetitorDAO {
+    private static final String UPSERT_SQL = """
+        INSERT INTO competitor_listings (asin, title, subtitle, price, bsr, category,
+                                         review_count, rating, scraped_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+        ON CONFLICT (asin) DO UPDATE SET
+            title = excluded.title,
+            subtitle = excluded.subtitle,
+            price = excluded.price,
+            bsr = excluded.bsr,
+            category = excluded.category,
+            review_count = excluded.review_count,
+            rating = excluded.rating,
+            scraped_at = excluded.scraped_at
+    """;
+    private static final String LINK_SQL = "INSERT OR IGNORE INTO idea_competitors (idea_id, asin) VALUES (?, ?)";
+    private static final int UPSERT_CHUNK_SIZE = 500;
+
+    private final DatabaseManager database;
+
+    public CompetitorDAO() {
+        this(DatabaseManager.getInstance());
+    }
+
+    public CompetitorDAO(DatabaseManager database) {
+        this.database = database;
+    }
+
+    /**
+     * Insert or refresh many listings and link each to its idea, in one transaction,
+     * executing the batches in chunks. A listing given for several ideas is saved once.
+     * Listings without an idea or an ASIN cannot be deduplicated and are skipped.
+     *
+     * @return Number of idea and listing pairs saved
+     */
+    public int upsertAll(Collection<Competitor> competitors) throws SQLException {
+        List<Competitor> valid = new ArrayList<>(competitors.size());
+        for (Competitor competitor : competitors) {
+            if (competitor.getIdeaId() != null && competitor.getAsin() != null && !competitor.getAsin().isBlank()) {
+                valid.add(competitor);
+            }
+        }
+        if (valid.isEmpty()) {
+            return 0;
+        }
+
+        // The last copy of a listing wins, as it is the most recent scrape
+        Map<String, Competitor> listings = new LinkedHashMap<>();
+        for (Competitor competitor : valid) {
+            listings.put(competitor.getAsin(), competitor);
+        }
+
+        return database.write(db -> {
+            PreparedStatement upsert = db.prepare(UPSERT_SQL);
+            int pending = 0;
+            for (Competitor competitor : listings.values()) {
+                bindCompetitor(upsert, competitor);
+                upsert.addBatch();
+                if (++pending == UPSERT_CHUNK_SIZE) {
+                    upsert.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                upsert.executeBatch();
+            }
+
+            PreparedStatement link = db.prepare(LINK_SQL);
+            pending = 0;
+            for (Competitor competitor : valid) {
+                link.setInt(1, competitor.getIdeaId());
+                link.setString(2, competitor.getAsin());
+                link.addBatch();
+                if (++pending == UPSERT_CHUNK_SIZE) {
+                    link.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                link.executeBatch();
+            }
+            return valid.size();
+        });
+    }
+
+    /**
+     * Listings saved for an idea, most reviewed first.
+     */
+    public List<Competitor> findByIdeaId(int ideaId) throws SQLException {
+        String sql = """
+            SELECT l.id, c.idea_id, l.asin, l.title, l.subtitle, l.price, l.bsr, l.category,
+                   l.review_count, l.rating, l.scraped_at
+            FROM idea_competitors c JOIN competitor_listings l ON l.asin = c.asin
+            WHERE c.idea_id = ?
+            ORDER BY l.review_count DESC, l.id
+        """;
+
+        return database.read(db -> {
+            PreparedStatement stmt = db.prepare(sql);
+            stmt.setInt(1, ideaId);
+            List<Competitor> competitors = new ArrayList<>();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    competitors.add(mapRowToCompetitor(rs));
+                }
+            }
+            return competitors;
+        });
+    }
+
+    private void bindCompetitor(PreparedStatement stmt, Competitor competitor) throws SQLException {
+        stmt.setString(1, competitor.getAsin());
+        stmt.setString(2, competitor.getTitle());
+        stmt.setString(3, competitor.getSubtitle());
+        stmt.setDouble(4, competitor.getPrice());
+        if (competitor.getBsr() != null) {
+            stmt.setInt(5, competitor.getBsr());
+        } else {
+            stmt.setNull(5, Types.INTEGER);
+        }
+        stmt.setString(6, competitor.getCategory());
+        stmt.setInt(7, competitor.getReviewCount());
+        stmt.setDouble(8, competitor.getRating());
+        stmt.setTimestamp(9, Timestamp.valueOf(competitor.getScrapedAt()));
+    }
+
+    private Competitor mapRowToCompetitor(ResultSet rs) throws SQLException {
+        Competitor competitor = new Competitor();
+        competitor.setId(rs.getInt(1));
+        competitor.setIdeaId(rs.getInt(2));
+        competitor.setAsin(rs.getString(3));
+        competitor.setTitle(rs.getString(4));
+        competitor.setSubtitle(rs.getString(5));
+        competitor.setPrice(rs.getDouble(6));
+        int bsr = rs.getInt(7);
+        competitor.setBsr(rs.wasNull() ? null : bsr);
+        competitor.setCategory(rs.getString(8));
+        competitor.setReviewCount(rs.getInt(9));
+        competitor.setRating(rs.getDouble(10));
+
+        Timestamp scrapedAt = rs.getTimestamp(11);
+        if (scrapedAt != null) {
+            competitor.setScrapedAt(scrapedAt.toLocalDateTime());
+        }
+
+        return competitor;
+    }
+}
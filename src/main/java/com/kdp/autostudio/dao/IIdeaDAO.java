@@ -1,9 +1,12 @@
 package com.kdp.autostudio.dao;
 
 import com.kdp.autostudio.model.Idea;
+import com.kdp.autostudio.model.IdeaSummary;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Data Access Object interface for Idea entities.
@@ -20,6 +23,14 @@ public interface IIdeaDAO {
      */
     void insert(Idea idea) throws SQLException;
 
+    /**
+     * Insert many ideas at once, all or nothing, assigning each its generated ID.
+     *
+     * @param ideas The ideas to insert
+     * @throws SQLException if database operation fails, in which case none of the ideas are saved
+     */
+    void insertAll(Collection<Idea> ideas) throws SQLException;
+
     /**
      * Retrieve all ideas from the database, ordered by score descending.
      *
@@ -37,6 +48,51 @@ public interface IIdeaDAO {
      */
     List<Idea> findByStatus(String status) throws SQLException;
 
+    /**
+     * Read one page of ideas ordered by score, continuing after the query's cursor.
+     * Unlike offset paging, the cost of a page does not grow with its position.
+     *
+     * @param query Status filter, sort direction, page size and cursor
+     * @return The page, with the cursor for the next page if there is one
+     * @throws SQLException if database operation fails
+     */
+    IdeaPage findPage(IdeaQuery query) throws SQLException;
+
+    /**
+     * Read one page of idea summaries, ordered and filtered like {@link #findPage}.
+     * Only the listed columns are read, so this is the query to use for lists and tables;
+     * load the full idea with {@link #findById} when its details are needed.
+     *
+     * @param query Status filter, sort direction, page size and cursor
+     * @return Up to the page size of summaries; fewer means there are no more
+     * @throws SQLException if database operation fails
+     */
+    List<IdeaSummary> findSummaries(IdeaQuery query) throws SQLException;
+
+    /**
+     * Full-text search over keyword, title, subtitle and AI explanation, best matches first.
+     * Every word of the text must match, and each word also matches as a prefix,
+     * so the search can run on every keystroke.
+     *
+     * @param text Words to search for; punctuation is ignored
+     * @param status Status to filter by, or null for every idea
+     * @param limit Maximum number of results
+     * @return Matching ideas ranked by relevance, empty if the text has no words
+     * @throws SQLException if database operation fails
+     */
+    List<IdeaSearchResult> search(String text, String status, int limit) throws SQLException;
+
+    /**
+     * Stream ideas ordered by score descending, reading them lazily instead of
+     * loading them all into memory. The stream holds database resources until it
+     * is closed, so use it in a try-with-resources block.
+     *
+     * @param status The status to filter by, or null for every idea
+     * @return Lazily populated stream of ideas
+     * @throws SQLException if the query cannot be started
+     */
+    Stream<Idea> stream(String status) throws SQLException;
+
     /**
      * Find an idea by its ID.
      *
@@ -54,5 +110,35 @@ public interface IIdeaDAO {
      * @throws SQLException if database operation fails
      */
     void updateStatus(int id, String status) throws SQLException;
+
+    /**
+     * Update the status of many ideas in one transaction.
+     * Approved ideas all receive the same approval time.
+     *
+     * @param ids The idea IDs
+     * @param status The new status
+     * @return Number of ideas updated; IDs that do not exist are skipped
+     * @throws SQLException if database operation fails, in which case no idea is updated
+     */
+    int updateStatus(Collection<Integer> ids, String status) throws SQLException;
+
+    /**
+     * Move every idea matching a rule to the rule's target status in a single statement.
+     *
+     * @param rule Which ideas to move and where
+     * @return Number of ideas updated
+     * @throws SQLException if database operation fails
+     */
+    int applyStatusRule(StatusRule rule) throws SQLException;
+
+    /**
+     * Overwrite the scores of many ideas in one transaction, e.g. after the scoring weights change.
+     *
+     * @param ids The idea IDs
+     * @param scores The new scores, one per ID
+     * @return Number of ideas updated; IDs that do not exist are skipped
+     * @throws SQLException if database operation fails, in which case no score is updated
+     */
+    int updateScores(int[] ids, double[] scores) throws SQLException;
 }
 
@@ -0,0 +1,435 @@
+package com.kdp.autostudio.dao;
+
+import com.kdp.autostudio.model.Idea;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * The numeric columns of every idea, held in parallel primitive arrays.
+ * A row takes 53 bytes of arrays plus its slot in the ID index, and no objects, so filtering
+ * or ranking a million ideas is a linear scan over a few arrays instead of a walk over a
+ * million {@link Idea}s.
+ * Queries answer with idea IDs; load the ideas themselves from a DAO when needed.
+ *
+ * Statuses are interned as small codes. Rows are never removed, as ideas are never deleted.
+ * All methods are synchronized, so a query never sees a half-applied write.
+ */
+public class IdeaColumnStore {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MAX_STATUSES = Byte.MAX_VALUE;
+    private static final int ALL_ROWS = -1;
+    private static final int NO_ROWS = -2;
+
+    /**
+     * A numeric column of the store.
+     */
+    public enum Column {
+        DEMAND, COMPETITION, MARGIN, EFFORT, NOVELTY, SCORE
+    }
+
+    /**
+     * A copy of the columns, row by row, that can be read without holding the store's lock.
+     */
+    public record Snapshot(int[] ids, double[] demand, double[] competition, double[] margin, double[] effort,
+                           double[] novelty, double[] score) {
+
+        public int size() {
+            return ids.length;
+        }
+    }
+
+    private final List<String> statusNames = new ArrayList<>();
+    private final Map<String, Byte> statusCodes = new HashMap<>();
+    private final IntIndex rowsById = new IntIndex();
+
+    private int size;
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private byte[] statuses = new byte[INITIAL_CAPACITY];
+    private double[] demand = new double[INITIAL_CAPACITY];
+    private double[] competition = new double[INITIAL_CAPACITY];
+    private double[] margin = new double[INITIAL_CAPACITY];
+    private double[] effort = new double[INITIAL_CAPACITY];
+    private double[] novelty = new double[INITIAL_CAPACITY];
+    private double[] score = new double[INITIAL_CAPACITY];
+
+    /**
+     * Build a store holding every idea of a DAO, streamed so the ideas are never all in memory.
+     */
+    public static IdeaColumnStore load(IIdeaDAO dao) throws SQLException {
+        IdeaColumnStore store = new IdeaColumnStore();
+        try (Stream<Idea> ideas = dao.stream(null)) {
+            Iterator<Idea> it = ideas.iterator();
+            while (it.hasNext()) {
+                store.put(it.next());
+            }
+        }
+        return store;
+    }
+
+    /**
+     * Add an idea, or overwrite its row if it is already stored. The idea must have an ID.
+     */
+    public synchronized void put(Idea idea) {
+        if (idea.getId() == null) {
+            throw new IllegalArgumentException("Idea has no ID");
+        }
+        int row = rowsById.get(idea.getId());
+        if (row < 0) {
+            row = size++;
+            ensureCapacity(size);
+            ids[row] = idea.getId();
+            rowsById.put(idea.getId(), row);
+        }
+        statuses[row] = statusCode(idea.getStatus());
+        demand[row] = idea.getDemand();
+        competition[row] = idea.getCompetition();
+        margin[row] = idea.getMargin();
+        effort[row] = idea.getEffort();
+        novelty[row] = idea.getNovelty();
+        score[row] = idea.getScore();
+    }
+
+    public synchronized void putAll(Collection<Idea> ideas) {
+        ideas.forEach(this::put);
+    }
+
+    /**
+     * Change the status of stored ideas, skipping IDs that are not stored.
+     *
+     * @return Number of ideas changed
+     */
+    public synchronized int setStatus(Collection<Integer> ideaIds, String status) {
+        byte code = statusCode(status);
+        int changed = 0;
+        for (int id : ideaIds) {
+            int row = rowsById.get(id);
+            if (row >= 0) {
+                statuses[row] = code;
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Apply a status rule to the stored ideas, as {@link IIdeaDAO#applyStatusRule} does to the saved ones.
+     *
+     * @return Number of ideas changed
+     */
+    public synchronized int applyStatusRule(StatusRule rule) {
+        Byte from = statusCodes.get(rule.fromStatus());
+        if (from == null) {
+            return 0;
+        }
+        byte to = statusCode(rule.toStatus());
+        double min = rule.minScore() != null ? rule.minScore() : Double.NEGATIVE_INFINITY;
+        double max = rule.maxScore() != null ? rule.maxScore() : Double.POSITIVE_INFINITY;
+        int changed = 0;
+        for (int row = 0; row < size; row++) {
+            if (statuses[row] == from && score[row] >= min && score[row] < max) {
+                statuses[row] = to;
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Overwrite the scores of stored ideas, skipping IDs that are not stored.
+     *
+     * @return Number of ideas changed
+     */
+    public synchronized int setScores(int[] ideaIds, double[] scores) {
+        int changed = 0;
+        for (int i = 0; i < ideaIds.length; i++) {
+            int row = rowsById.get(ideaIds[i]);
+            if (row >= 0) {
+                score[row] = scores[i];
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    public synchronized Snapshot snapshot() {
+        return new Snapshot(Arrays.copyOf(ids, size), Arrays.copyOf(demand, size), Arrays.copyOf(competition, size),
+                            Arrays.copyOf(margin, size), Arrays.copyOf(effort, size), Arrays.copyOf(novelty, size),
+                            Arrays.copyOf(score, size));
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized boolean contains(int id) {
+        return rowsById.get(id) >= 0;
+    }
+
+    /**
+     * Number of stored ideas with a status, or of all ideas for a null status.
+     */
+    public synchronized int count(String status) {
+        if (status == null) {
+            return size;
+        }
+        Byte code = statusCodes.get(status);
+        if (code == null) {
+            return 0;
+        }
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            if (statuses[row] == code) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * A value of a stored idea, or NaN if the idea is not stored.
+     */
+    public synchronized double get(int id, Column column) {
+        int row = rowsById.get(id);
+        return row < 0 ? Double.NaN : values(column)[row];
+    }
+
+    /**
+     * Status of a stored idea, or null if the idea is not stored.
+     */
+    public synchronized String getStatus(int id) {
+        int row = rowsById.get(id);
+        return row < 0 ? null : statusNames.get(statuses[row]);
+    }
+
+    /**
+     * IDs of the ideas whose value of a column lies in a range, in no particular order.
+     *
+     * @param status Status to filter by, or null for every idea
+     * @param column Column to filter on
+     * @param min Lowest value included
+     * @param max Value from which ideas are excluded
+     */
+    public synchronized int[] filter(String status, Column column, double min, double max) {
+        int code = statusFilter(status);
+        if (code == NO_ROWS) {
+            return new int[0];
+        }
+        double[] values = values(column);
+        int[] matches = new int[16];
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            if ((code == ALL_ROWS || statuses[row] == code) && values[row] >= min && values[row] < max) {
+                if (count == matches.length) {
+                    matches = Arrays.copyOf(matches, count * 2);
+                }
+                matches[count++] = ids[row];
+            }
+        }
+        return Arrays.copyOf(matches, count);
+    }
+
+    /**
+     * IDs of the ideas ranking first by a column, best first, ties broken by lower ID.
+     * Runs in one pass with a heap of at most {@code limit} rows, so the top 50 of a
+     * million ideas never sorts more than 50.
+     *
+     * @param status Status to filter by, or null for every idea
+     * @param column Column to rank by
+     * @param descending Whether higher values rank first
+     * @param limit Maximum number of IDs
+     */
+    public synchronized int[] top(String status, Column column, boolean descending, int limit) {
+        int code = statusFilter(status);
+        if (code == NO_ROWS || limit <= 0) {
+            return new int[0];
+        }
+        double[] values = values(column);
+
+        // Min-heap on rank: the root is the worst row kept so far
+        int[] heap = new int[Math.min(limit, Math.max(size, 1))];
+        int heapSize = 0;
+        for (int row = 0; row < size; row++) {
+            if (code != ALL_ROWS && statuses[row] != code) {
+                continue;
+            }
+            if (heapSize < heap.length) {
+                heap[heapSize] = row;
+                siftUp(heap, heapSize++, values, descending);
+            } else if (ranksBefore(row, heap[0], values, descending)) {
+                heap[0] = row;
+                siftDown(heap, heapSize, values, descending);
+            }
+        }
+
+        int[] result = new int[heapSize];
+        for (int i = heapSize - 1; i >= 0; i--) {
+            result[i] = ids[heap[0]];
+            heap[0] = heap[--heapSize];
+            siftDown(heap, heapSize, values, descending);
+        }
+        return result;
+    }
+
+    private int statusFilter(String status) {
+        if (status == null) {
+            return ALL_ROWS;
+        }
+        Byte code = statusCodes.get(status);
+        return code == null ? NO_ROWS : code;
+    }
+
+    private boolean ranksBefore(int a, int b, double[] values, boolean descending) {
+        int cmp = Double.compare(values[a], values[b]);
+        if (cmp != 0) {
+            return descending ? cmp > 0 : cmp < 0;
+        }
+        return ids[a] < ids[b];
+    }
+
+    private void siftUp(int[] heap, int index, double[] values, boolean descending) {
+        int row = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (!ranksBefore(heap[parent], row, values, descending)) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = row;
+    }
+
+    private void siftDown(int[] heap, int heapSize, double[] values, boolean descending) {
+        if (heapSize == 0) {
+            return;
+        }
+        int row = heap[0];
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && ranksBefore(heap[child], heap[child + 1], values, descending)) {
+                child++;
+            }
+            if (!ranksBefore(row, heap[child], values, descending)) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = row;
+    }
+
+    private double[] values(Column column) {
+        return switch (column) {
+            case DEMAND -> demand;
+            case COMPETITION -> competition;
+            case MARGIN -> margin;
+            case EFFORT -> effort;
+            case NOVELTY -> novelty;
+            case SCORE -> score;
+        };
+    }
+
+    private byte statusCode(String status) {
+        Byte code = statusCodes.get(status);
+        if (code == null) {
+            if (statusNames.size() == MAX_STATUSES) {
+                throw new IllegalStateException("Too many distinct idea statuses");
+            }
+            code = (byte) statusNames.size();
+            statusNames.add(status);
+            statusCodes.put(status, code);
+        }
+        return code;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) {
+            return;
+        }
+        int grown = Math.max(capacity, ids.length * 2);
+        ids = Arrays.copyOf(ids, grown);
+        statuses = Arrays.copyOf(statuses, grown);
+        demand = Arrays.copyOf(demand, grown);
+        competition = Arrays.copyOf(competition, grown);
+        margin = Arrays.copyOf(margin, grown);
+        effort = Arrays.copyOf(effort, grown);
+        novelty = Arrays.copyOf(novelty, grown);
+        score = Arrays.copyOf(score, grown);
+    }
+
+    /**
+     * Open-addressing map from idea ID to row, so the index adds no object per idea.
+     */
+    private static class IntIndex {
+        private static final int EMPTY = Integer.MIN_VALUE;
+
+        private int[] keys = newKeys(INITIAL_CAPACITY * 2);
+        private int[] rows = new int[INITIAL_CAPACITY * 2];
+        private int count;
+
+        int get(int key) {
+            int mask = keys.length - 1;
+            for (int slot = mix(key) & mask; keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return rows[slot];
+                }
+            }
+            return -1;
+        }
+
+        void put(int key, int row) {
+            if (key == EMPTY) {
+                throw new IllegalArgumentException("Unsupported idea ID: " + key);
+            }
+            if ((count + 1) * 2 > keys.length) {
+                resize(keys.length * 2);
+            }
+            int mask = keys.length - 1;
+            int slot = mix(key) & mask;
+            while (keys[slot] != EMPTY && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (keys[slot] == EMPTY) {
+                count++;
+            }
+            keys[slot] = key;
+            rows[slot] = row;
+        }
+
+        private void resize(int capacity) {
+            int[] oldKeys = keys;
+            int[] oldRows = rows;
+            keys = newKeys(capacity);
+            rows = new int[capacity];
+            count = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    put(oldKeys[i], oldRows[i]);
+                }
+            }
+        }
+
+        private static int[] newKeys(int capacity) {
+            int[] keys = new int[capacity];
+            Arrays.fill(keys, EMPTY);
+            return keys;
+        }
+
+        private static int mix(int key) {
+            int h = key * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.kdp.autostudio.dao;
+
+import com.kdp.autostudio.model.Idea;
+import com.kdp.autostudio.model.IdeaSummary;
+
+import java.util.Comparator;
+
+/**
+ * Position in a score-ordered list of ideas: the score and ID of the last idea seen.
+ * Ties on score are broken by ID, so the position is unambiguous.
+ */
+public record IdeaCursor(double score, int id) {
+
+    /**
+     * The order of the backlog: highest score first, then lowest ID.
+     */
+    static final Comparator<IdeaCursor> BEST_FIRST =
+        Comparator.comparingDouble(IdeaCursor::score).reversed().thenComparingInt(IdeaCursor::id);
+
+    public static IdeaCursor of(Idea idea) {
+        return new IdeaCursor(idea.getScore(), idea.getId());
+    }
+
+    public static IdeaCursor of(IdeaSummary summary) {
+        return new IdeaCursor(summary.score(), summary.id());
+    }
+}
@@ -1,14 +1,18 @@
 package com.kdp.autostudio.dao;
 
 import com.kdp.autostudio.database.DatabaseManager;
+import com.kdp.autostudio.database.PooledConnection;
 import com.kdp.autostudio.model.Idea;
+import com.kdp.autostudio.model.IdeaSummary;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Data Access Object for Idea entities.
@@ -17,138 +21,402 @@ import java.util.List;
 public class IdeaDAO implements IIdeaDAO {
     private static final Logger logger = LoggerFactory.getLogger(IdeaDAO.class);
 
-    public void insert(Idea idea) throws SQLException {
-        String sql = """
-            INSERT INTO ideas (keyword, title, subtitle, demand, competition, margin, effort, novelty, 
-                             score, risk, profitability, ai_explanation, status, created_at)
-            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
-        """;
-
-        try (Connection conn = DatabaseManager.getInstance().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
-            stmt.setString(1, idea.getKeyword());
-            stmt.setString(2, idea.getTitle());
-            stmt.setString(3, idea.getSubtitle());
-            stmt.setDouble(4, idea.getDemand());
-            stmt.setDouble(5, idea.getCompetition());
-            stmt.setDouble(6, idea.getMargin());
-            stmt.setDouble(7, idea.getEffort());
-            stmt.setDouble(8, idea.getNovelty());
-            stmt.setDouble(9, idea.getScore());
-            stmt.setString(10, idea.getRisk());
-            stmt.setString(11, idea.getProfitability());
-            stmt.setString(12, idea.getAiExplanation());
-            stmt.setString(13, idea.getStatus());
-            stmt.setTimestamp(14, Timestamp.valueOf(idea.getCreatedAt()));
+    private static final String INSERT_SQL = """
+        INSERT INTO ideas (keyword, title, subtitle, demand, competition, margin, effort, novelty, 
+                         score, risk, profitability, ai_explanation, status, created_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+    """;
+    private static final int BATCH_CHUNK_SIZE = 500;
+    private static final String UPDATE_STATUS_SQL = "UPDATE ideas SET status = ?, approved_at = ? WHERE id = ?";
+    private static final String UPDATE_SCORE_SQL = "UPDATE ideas SET score = ? WHERE id = ?";
+
+    // Selected in this order so rows are mapped by position rather than by column name
+    private static final String IDEA_COLUMNS = """
+        id, keyword, title, subtitle, demand, competition, margin, effort, novelty,
+        score, risk, profitability, ai_explanation, status, created_at, approved_at""";
+    private static final String SUMMARY_COLUMNS = "id, keyword, title, score, demand, competition, status";
+
+    private final DatabaseManager database;
+
+    public IdeaDAO() {
+        this(DatabaseManager.getInstance());
+    }
+
+    public IdeaDAO(DatabaseManager database) {
+        this.database = database;
+    }
 
+    public void insert(Idea idea) throws SQLException {
+        int id = database.write(db -> {
+            PreparedStatement stmt = db.prepare(INSERT_SQL);
+            bindIdea(stmt, idea);
             stmt.executeUpdate();
+            return (int) db.lastInsertId();
+        });
+        idea.setId(id);
+    }
 
-            try (ResultSet rs = stmt.getGeneratedKeys()) {
-                if (rs.next()) {
-                    idea.setId(rs.getInt(1));
+    /**
+     * Insert ideas with one reused statement in a single write, executing the
+     * batch in chunks so very large inputs do not build one huge batch in memory.
+     * IDs are derived from last_insert_rowid(): the writer holds SQLite's write
+     * lock, so the rows of a chunk receive consecutive IDs.
+     */
+    public void insertAll(Collection<Idea> ideas) throws SQLException {
+        if (ideas.isEmpty()) {
+            return;
+        }
+
+        List<Integer> ids = database.write(db -> {
+            PreparedStatement stmt = db.prepare(INSERT_SQL);
+            List<Integer> generated = new ArrayList<>(ideas.size());
+            int pending = 0;
+            for (Idea idea : ideas) {
+                bindIdea(stmt, idea);
+                stmt.addBatch();
+                if (++pending == BATCH_CHUNK_SIZE) {
+                    executeChunk(db, stmt, pending, generated);
+                    pending = 0;
                 }
             }
+            if (pending > 0) {
+                executeChunk(db, stmt, pending, generated);
+            }
+            return generated;
+        });
+
+        // IDs are only assigned once the write has committed
+        int i = 0;
+        for (Idea idea : ideas) {
+            idea.setId(ids.get(i++));
         }
     }
 
-    public List<Idea> findAll() throws SQLException {
-        String sql = "SELECT * FROM ideas ORDER BY score DESC";
-        List<Idea> ideas = new ArrayList<>();
+    private void executeChunk(PooledConnection db, PreparedStatement stmt, int size, List<Integer> ids)
+            throws SQLException {
+        stmt.executeBatch();
+        long id = db.lastInsertId() - size + 1;
+        for (int i = 0; i < size; i++) {
+            ids.add((int) id++);
+        }
+    }
 
-        try (Connection conn = DatabaseManager.getInstance().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
+    private void bindIdea(PreparedStatement stmt, Idea idea) throws SQLException {
+        stmt.setString(1, idea.getKeyword());
+        stmt.setString(2, idea.getTitle());
+        stmt.setString(3, idea.getSubtitle());
+        stmt.setDouble(4, idea.getDemand());
+        stmt.setDouble(5, idea.getCompetition());
+        stmt.setDouble(6, idea.getMargin());
+        stmt.setDouble(7, idea.getEffort());
+        stmt.setDouble(8, idea.getNovelty());
+        stmt.setDouble(9, idea.getScore());
+        stmt.setString(10, idea.getRisk());
+        stmt.setString(11, idea.getProfitability());
+        stmt.setString(12, idea.getAiExplanation());
+        stmt.setString(13, idea.getStatus());
+        stmt.setTimestamp(14, Timestamp.valueOf(idea.getCreatedAt()));
+    }
 
-            while (rs.next()) {
-                ideas.add(mapRowToIdea(rs));
-            }
-        }
+    public List<Idea> findAll() throws SQLException {
+        String sql = "SELECT " + IDEA_COLUMNS + " FROM ideas ORDER BY score DESC";
 
-        return ideas;
+        return database.read(db -> {
+            List<Idea> ideas = new ArrayList<>();
+            try (ResultSet rs = db.prepare(sql).executeQuery()) {
+                while (rs.next()) {
+                    ideas.add(mapRowToIdea(rs));
+                }
+            }
+            return ideas;
+        });
     }
 
     public List<Idea> findByStatus(String status) throws SQLException {
-        String sql = "SELECT * FROM ideas WHERE status = ? ORDER BY score DESC";
-        List<Idea> ideas = new ArrayList<>();
-
-        try (Connection conn = DatabaseManager.getInstance().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        String sql = "SELECT " + IDEA_COLUMNS + " FROM ideas WHERE status = ? ORDER BY score DESC";
 
+        return database.read(db -> {
+            PreparedStatement stmt = db.prepare(sql);
             stmt.setString(1, status);
+            List<Idea> ideas = new ArrayList<>();
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
                     ideas.add(mapRowToIdea(rs));
                 }
             }
-        }
+            return ideas;
+        });
+    }
 
-        return ideas;
+    /**
+     * Keyset pagination over (score, id). Descending pages sort by score DESC, id ASC,
+     * ascending pages by score ASC, id DESC; either way the order is an exact walk of
+     * the score indexes, and one extra row is fetched to tell whether a next page exists.
+     */
+    public IdeaPage findPage(IdeaQuery query) throws SQLException {
+        String sql = pageSql(IDEA_COLUMNS, query);
+
+        return database.read(db -> {
+            PreparedStatement stmt = db.prepare(sql);
+            bindPage(stmt, query, query.pageSize() + 1);
+            List<Idea> ideas = new ArrayList<>(query.pageSize());
+            boolean more = false;
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    if (ideas.size() == query.pageSize()) {
+                        more = true;
+                        break;
+                    }
+                    ideas.add(mapRowToIdea(rs));
+                }
+            }
+            IdeaCursor next = more ? IdeaCursor.of(ideas.get(ideas.size() - 1)) : null;
+            return new IdeaPage(ideas, next);
+        });
     }
 
-    public Idea findById(int id) throws SQLException {
-        String sql = "SELECT * FROM ideas WHERE id = ?";
+    public List<IdeaSummary> findSummaries(IdeaQuery query) throws SQLException {
+        String sql = pageSql(SUMMARY_COLUMNS, query);
 
-        try (Connection conn = DatabaseManager.getInstance().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        return database.read(db -> {
+            PreparedStatement stmt = db.prepare(sql);
+            bindPage(stmt, query, query.pageSize());
+            List<IdeaSummary> summaries = new ArrayList<>(query.pageSize());
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    summaries.add(mapRowToSummary(rs));
+                }
+            }
+            return summaries;
+        });
+    }
 
-            stmt.setInt(1, id);
+    private static String pageSql(String columns, IdeaQuery query) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(columns).append(" FROM ideas");
+        List<String> conditions = new ArrayList<>();
+        if (query.status() != null) {
+            conditions.add("status = ?");
+        }
+        if (query.after() != null) {
+            conditions.add(query.ascending()
+                ? "(score > ? OR (score = ? AND id < ?))"
+                : "(score < ? OR (score = ? AND id > ?))");
+        }
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        sql.append(query.ascending() ? " ORDER BY score ASC, id DESC" : " ORDER BY score DESC, id ASC");
+        return sql.append(" LIMIT ?").toString();
+    }
+
+    private static void bindPage(PreparedStatement stmt, IdeaQuery query, int limit) throws SQLException {
+        int index = 1;
+        if (query.status() != null) {
+            stmt.setString(index++, query.status());
+        }
+        if (query.after() != null) {
+            stmt.setDouble(index++, query.after().score());
+            stmt.setDouble(index++, query.after().score());
+            stmt.setInt(index++, query.after().id());
+        }
+        stmt.setInt(index, limit);
+    }
+
+    /**
+     * Ranked search on the ideas_fts index. Keyword and title matches weigh more than
+     * subtitle and explanation matches; each word becomes a quoted prefix term, so user
+     * input can never be parsed as FTS5 query syntax.
+     */
+    public List<IdeaSearchResult> search(String text, String status, int limit) throws SQLException {
+        String match = toMatchExpression(text);
+        if (match == null || limit <= 0) {
+            return List.of();
+        }
+        String sql = "SELECT i.id, i.keyword, i.title, i.score, i.demand, i.competition, i.status,"
+            + " snippet(ideas_fts, -1, '[', ']', '...', 12), bm25(ideas_fts, 10.0, 5.0, 2.0, 1.0) AS relevance"
+            + " FROM ideas_fts JOIN ideas i ON i.id = ideas_fts.rowid WHERE ideas_fts MATCH ?"
+            + (status != null ? " AND i.status = ?" : "")
+            + " ORDER BY relevance LIMIT ?";
+
+        return database.read(db -> {
+            PreparedStatement stmt = db.prepare(sql);
+            int index = 1;
+            stmt.setString(index++, match);
+            if (status != null) {
+                stmt.setString(index++, status);
+            }
+            stmt.setInt(index, limit);
+            List<IdeaSearchResult> results = new ArrayList<>();
             try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return mapRowToIdea(rs);
+                while (rs.next()) {
+                    results.add(new IdeaSearchResult(mapRowToSummary(rs), rs.getString(8), rs.getDouble(9)));
                 }
             }
+            return results;
+        });
+    }
+
+    private static String toMatchExpression(String text) {
+        if (text == null) {
+            return null;
+        }
+        List<String> terms = new ArrayList<>();
+        for (String word : text.split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                terms.add("\"" + word + "\"*");
+            }
         }
+        return terms.isEmpty() ? null : String.join(" ", terms);
+    }
+
+    public Stream<Idea> stream(String status) throws SQLException {
+        String sql = status == null
+            ? "SELECT " + IDEA_COLUMNS + " FROM ideas ORDER BY score DESC, id ASC"
+            : "SELECT " + IDEA_COLUMNS + " FROM ideas WHERE status = ? ORDER BY score DESC, id ASC";
 
-        return null;
+        return database.stream(db -> {
+            PreparedStatement stmt = db.prepare(sql);
+            if (status != null) {
+                stmt.setString(1, status);
+            }
+            return stmt.executeQuery();
+        }, this::mapRowToIdea);
+    }
+
+    public Idea findById(int id) throws SQLException {
+        String sql = "SELECT " + IDEA_COLUMNS + " FROM ideas WHERE id = ?";
+
+        return database.read(db -> {
+            PreparedStatement stmt = db.prepare(sql);
+            stmt.setInt(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? mapRowToIdea(rs) : null;
+            }
+        });
     }
 
     public void updateStatus(int id, String status) throws SQLException {
-        String sql = "UPDATE ideas SET status = ?, approved_at = ? WHERE id = ?";
+        updateStatus(List.of(id), status);
+    }
 
-        try (Connection conn = DatabaseManager.getInstance().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+    public int updateStatus(Collection<Integer> ids, String status) throws SQLException {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        Timestamp approvedAt = approvedAt(status);
 
-            stmt.setString(1, status);
-            if ("approved".equals(status)) {
-                stmt.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
-            } else {
-                stmt.setNull(2, Types.TIMESTAMP);
+        return database.write(db -> {
+            PreparedStatement stmt = db.prepare(UPDATE_STATUS_SQL);
+            for (int id : ids) {
+                bindStatus(stmt, 1, status, approvedAt);
+                stmt.setInt(3, id);
+                stmt.addBatch();
             }
-            stmt.setInt(3, id);
+            int updated = 0;
+            for (int count : stmt.executeBatch()) {
+                updated += Math.max(0, count);
+            }
+            return updated;
+        });
+    }
 
-            stmt.executeUpdate();
+    public int applyStatusRule(StatusRule rule) throws SQLException {
+        StringBuilder sql = new StringBuilder("UPDATE ideas SET status = ?, approved_at = ? WHERE status = ?");
+        if (rule.minScore() != null) {
+            sql.append(" AND score >= ?");
+        }
+        if (rule.maxScore() != null) {
+            sql.append(" AND score < ?");
+        }
+        Timestamp approvedAt = approvedAt(rule.toStatus());
+
+        return database.write(db -> {
+            PreparedStatement stmt = db.prepare(sql.toString());
+            bindStatus(stmt, 1, rule.toStatus(), approvedAt);
+            int index = 3;
+            stmt.setString(index++, rule.fromStatus());
+            if (rule.minScore() != null) {
+                stmt.setDouble(index++, rule.minScore());
+            }
+            if (rule.maxScore() != null) {
+                stmt.setDouble(index, rule.maxScore());
+            }
+            return stmt.executeUpdate();
+        });
+    }
+
+    public int updateScores(int[] ids, double[] scores) throws SQLException {
+        if (ids.length != scores.length) {
+            throw new IllegalArgumentException("Expected one score per ID");
+        }
+        if (ids.length == 0) {
+            return 0;
+        }
+
+        return database.write(db -> {
+            PreparedStatement stmt = db.prepare(UPDATE_SCORE_SQL);
+            int updated = 0;
+            for (int i = 0; i < ids.length; i++) {
+                stmt.setDouble(1, scores[i]);
+                stmt.setInt(2, ids[i]);
+                stmt.addBatch();
+                if ((i + 1) % BATCH_CHUNK_SIZE == 0 || i == ids.length - 1) {
+                    for (int count : stmt.executeBatch()) {
+                        updated += Math.max(0, count);
+                    }
+                }
+            }
+            return updated;
+        });
+    }
+
+    private static Timestamp approvedAt(String status) {
+        return "approved".equals(status) ? Timestamp.valueOf(LocalDateTime.now()) : null;
+    }
+
+    private static void bindStatus(PreparedStatement stmt, int index, String status, Timestamp approvedAt)
+            throws SQLException {
+        stmt.setString(index, status);
+        if (approvedAt != null) {
+            stmt.setTimestamp(index + 1, approvedAt);
+        } else {
+            stmt.setNull(index + 1, Types.TIMESTAMP);
         }
     }
 
     private Idea mapRowToIdea(ResultSet rs) throws SQLException {
         Idea idea = new Idea();
-        idea.setId(rs.getInt("id"));
-        idea.setKeyword(rs.getString("keyword"));
-        idea.setTitle(rs.getString("title"));
-        idea.setSubtitle(rs.getString("subtitle"));
-        idea.setDemand(rs.getDouble("demand"));
-        idea.setCompetition(rs.getDouble("competition"));
-        idea.setMargin(rs.getDouble("margin"));
-        idea.setEffort(rs.getDouble("effort"));
-        idea.setNovelty(rs.getDouble("novelty"));
-        idea.setScore(rs.getDouble("score"));
-        idea.setRisk(rs.getString("risk"));
-        idea.setProfitability(rs.getString("profitability"));
-        idea.setAiExplanation(rs.getString("ai_explanation"));
-        idea.setStatus(rs.getString("status"));
-
-        Timestamp createdAt = rs.getTimestamp("created_at");
+        idea.setId(rs.getInt(1));
+        idea.setKeyword(rs.getString(2));
+        idea.setTitle(rs.getString(3));
+        idea.setSubtitle(rs.getString(4));
+        idea.setDemand(rs.getDouble(5));
+        idea.setCompetition(rs.getDouble(6));
+        idea.setMargin(rs.getDouble(7));
+        idea.setEffort(rs.getDouble(8));
+        idea.setNovelty(rs.getDouble(9));
+        idea.setScore(rs.getDouble(10));
+        idea.setRisk(rs.getString(11));
+        idea.setProfitability(rs.getString(12));
+        idea.setAiExplanation(rs.getString(13));
+        idea.setStatus(rs.getString(14));
+
+        Timestamp createdAt = rs.getTimestamp(15);
         if (createdAt != null) {
             idea.setCreatedAt(createdAt.toLocalDateTime());
         }
 
-        Timestamp approvedAt = rs.getTimestamp("approved_at");
+        Timestamp approvedAt = rs.getTimestamp(16);
         if (approvedAt != null) {
             idea.setApprovedAt(approvedAt.toLocalDateTime());
         }
 
         return idea;
     }
+
+    private IdeaSummary mapRowToSummary(ResultSet rs) throws SQLException {
+        return new IdeaSummary(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getDouble(4),
+                               rs.getDouble(5), rs.getDouble(6), rs.getString(7));
+    }
 }
 
@@ -0,0 +1,18 @@
+package com.kdp.autostudio.dao;
+
+import com.kdp.autostudio.model.Idea;
+
+import java.util.List;
+
+/**
+ * A page of ideas and the cursor to continue from.
+ *
+ * @param ideas Ideas on the page, in query order
+ * @param next Cursor for the following page, or null if this is the last page
+ */
+public record IdeaPage(List<Idea> ideas, IdeaCursor next) {
+
+    public boolean hasNext() {
+        return next != null;
+    }
+}
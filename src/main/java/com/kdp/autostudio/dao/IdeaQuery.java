@@ -0,0 +1,34 @@
+package com.kdp.autostudio.dao;
+
+/**
+ * One page of a score-ordered listing of ideas, optionally filtered by status.
+ * Pages are addressed by keyset rather than offset: each page continues after the
+ * cursor of the previous one, so reading page 1000 costs the same as reading page 1.
+ *
+ * @param status Status to filter by, or null for every idea
+ * @param ascending True for lowest score first; ties are broken by ID
+ * @param pageSize Maximum number of ideas on the page
+ * @param after Cursor of the last idea on the previous page, or null for the first page
+ */
+public record IdeaQuery(String status, boolean ascending, int pageSize, IdeaCursor after) {
+
+    public IdeaQuery {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+    }
+
+    /**
+     * First page of ideas with the given status, highest score first.
+     */
+    public static IdeaQuery firstPage(String status, int pageSize) {
+        return new IdeaQuery(status, false, pageSize, null);
+    }
+
+    /**
+     * The same query, continuing after the given cursor.
+     */
+    public IdeaQuery after(IdeaCursor cursor) {
+        return new IdeaQuery(status, ascending, pageSize, cursor);
+    }
+}
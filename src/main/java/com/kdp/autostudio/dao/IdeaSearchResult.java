@@ -0,0 +1,13 @@
+package com.kdp.autostudio.dao;
+
+import com.kdp.autostudio.model.IdeaSummary;
+
+/**
+ * An idea matching a full-text search.
+ *
+ * @param summary The matching idea
+ * @param snippet Excerpt of the best matching field, with matched terms in [brackets]
+ * @param relevance BM25 relevance; lower is more relevant
+ */
+public record IdeaSearchResult(IdeaSummary summary, String snippet, double relevance) {
+}
@@ -1,12 +1,17 @@
 package com.kdp.autostudio.dao;
 
 import com.kdp.autostudio.model.Idea;
+import com.kdp.autostudio.model.IdeaSummary;
 
 import java.sql.SQLException;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 /**
  * Mock implementation of IIdeaDAO for testing purposes.
@@ -28,6 +33,18 @@ public class MockIdeaDAO implements IIdeaDAO {
         storage.put(id, idea);
     }
 
+    @Override
+    public void insertAll(Collection<Idea> ideas) throws SQLException {
+        for (Idea idea : ideas) {
+            if (idea == null) {
+                throw new SQLException("Idea cannot be null");
+            }
+        }
+        for (Idea idea : ideas) {
+            insert(idea);
+        }
+    }
+
     @Override
     public List<Idea> findAll() throws SQLException {
         return new ArrayList<>(storage.values());
@@ -44,6 +61,102 @@ public class MockIdeaDAO implements IIdeaDAO {
         return result;
     }
 
+    @Override
+    public IdeaPage findPage(IdeaQuery query) throws SQLException {
+        Comparator<Idea> order = Comparator.comparingDouble(Idea::getScore).reversed()
+            .thenComparingInt(Idea::getId);
+        if (query.ascending()) {
+            order = order.reversed();
+        }
+        IdeaCursor after = query.after();
+        List<Idea> matches = storage.values().stream()
+            .filter(idea -> query.status() == null || query.status().equals(idea.getStatus()))
+            .filter(idea -> after == null || isAfter(idea, after, query.ascending()))
+            .sorted(order)
+            .limit(query.pageSize() + 1L)
+            .toList();
+
+        if (matches.size() <= query.pageSize()) {
+            return new IdeaPage(matches, null);
+        }
+        List<Idea> page = matches.subList(0, query.pageSize());
+        Idea last = page.get(page.size() - 1);
+        return new IdeaPage(page, IdeaCursor.of(last));
+    }
+
+    @Override
+    public List<IdeaSummary> findSummaries(IdeaQuery query) throws SQLException {
+        return findPage(query).ideas().stream()
+            .map(idea -> new IdeaSummary(idea.getId(), idea.getKeyword(), idea.getTitle(), idea.getScore(),
+                                         idea.getDemand(), idea.getCompetition(), idea.getStatus()))
+            .toList();
+    }
+
+    private static boolean isAfter(Idea idea, IdeaCursor cursor, boolean ascending) {
+        int byScore = Double.compare(idea.getScore(), cursor.score());
+        if (byScore != 0) {
+            return ascending ? byScore > 0 : byScore < 0;
+        }
+        return ascending ? idea.getId() < cursor.id() : idea.getId() > cursor.id();
+    }
+
+    /**
+     * Naive search: every word must prefix a word of the keyword, title, subtitle or
+     * explanation. Relevance is minus the number of fields matched.
+     */
+    @Override
+    public List<IdeaSearchResult> search(String text, String status, int limit) throws SQLException {
+        String[] words = text == null ? new String[0] : text.toLowerCase().split("[^\\p{L}\\p{N}]+");
+        List<IdeaSearchResult> results = new ArrayList<>();
+        for (Idea idea : storage.values()) {
+            if (status != null && !status.equals(idea.getStatus())) {
+                continue;
+            }
+            int fields = 0;
+            String snippet = null;
+            for (String field : new String[] {idea.getKeyword(), idea.getTitle(), idea.getSubtitle(),
+                                              idea.getAiExplanation()}) {
+                if (field != null && containsPrefixes(field.toLowerCase(), words)) {
+                    fields++;
+                    snippet = snippet == null ? field : snippet;
+                }
+            }
+            if (fields > 0) {
+                IdeaSummary summary = new IdeaSummary(idea.getId(), idea.getKeyword(), idea.getTitle(),
+                        idea.getScore(), idea.getDemand(), idea.getCompetition(), idea.getStatus());
+                results.add(new IdeaSearchResult(summary, snippet, -fields));
+            }
+        }
+        results.sort(Comparator.comparingDouble(IdeaSearchResult::relevance));
+        return results.subList(0, Math.min(limit, results.size()));
+    }
+
+    private static boolean containsPrefixes(String field, String[] words) {
+        String[] fieldWords = field.split("[^\\p{L}\\p{N}]+");
+        boolean any = false;
+        for (String word : words) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            any = true;
+            boolean found = false;
+            for (String fieldWord : fieldWords) {
+                found |= fieldWord.startsWith(word);
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return any;
+    }
+
+    @Override
+    public Stream<Idea> stream(String status) throws SQLException {
+        return storage.values().stream()
+            .filter(idea -> status == null || status.equals(idea.getStatus()))
+            .sorted(Comparator.comparingDouble(Idea::getScore).reversed().thenComparingInt(Idea::getId));
+    }
+
     @Override
     public Idea findById(int id) throws SQLException {
         return storage.get(id);
@@ -59,6 +172,48 @@ public class MockIdeaDAO implements IIdeaDAO {
         }
     }
 
+    @Override
+    public int updateStatus(Collection<Integer> ids, String status) throws SQLException {
+        LocalDateTime approvedAt = "approved".equals(status) ? LocalDateTime.now() : null;
+        int updated = 0;
+        for (int id : ids) {
+            Idea idea = storage.get(id);
+            if (idea != null) {
+                idea.setStatus(status);
+                idea.setApprovedAt(approvedAt);
+                updated++;
+            }
+        }
+        return updated;
+    }
+
+    @Override
+    public int applyStatusRule(StatusRule rule) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        for (Idea idea : storage.values()) {
+            if (rule.matches(idea.getStatus(), idea.getScore())) {
+                ids.add(idea.getId());
+            }
+        }
+        return updateStatus(ids, rule.toStatus());
+    }
+
+    @Override
+    public int updateScores(int[] ids, double[] scores) throws SQLException {
+        if (ids.length != scores.length) {
+            throw new IllegalArgumentException("Expected one score per ID");
+        }
+        int updated = 0;
+        for (int i = 0; i < ids.length; i++) {
+            Idea idea = storage.get(ids[i]);
+            if (idea != null) {
+                idea.setScore(scores[i]);
+                updated++;
+            }
+        }
+        return updated;
+    }
+
     /**
      * Clear all stored ideas (useful for testing).
      */
@@ -0,0 +1,126 @@
+package com.kdp.autostudio.dao;
+
+import com.kdp.autostudio.database.DatabaseManager;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+
+/**
+ * Data Access Object for the persistent research cache.
+ * Each row holds the encoded ideas produced for one normalized keyword
+ * by a given OpenAI model and worker version.
+ */
+public class ResearchCacheDAO {
+
+    /**
+     * A cached research result as stored in the database.
+     */
+    public record CachedResearch(String ideasJson, LocalDateTime createdAt) {
+    }
+
+    private final DatabaseManager database;
+
+    public ResearchCacheDAO() {
+        this(DatabaseManager.getInstance());
+    }
+
+    public ResearchCacheDAO(DatabaseManager database) {
+        this.database = database;
+    }
+
+    public CachedResearch find(String keyword, String model, String workerVersion) throws SQLException {
+        String sql = """
+            SELECT ideas_json, created_at FROM research_cache
+            WHERE keyword = ? AND model = ? AND worker_version = ?
+        """;
+
+        return database.read(db -> {
+            PreparedStatement stmt = db.prepare(sql);
+            stmt.setString(1, keyword);
+            stmt.setString(2, model);
+            stmt.setString(3, workerVersion);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return new CachedResearch(rs.getString("ideas_json"), rs.getTimestamp("created_at").toLocalDateTime());
+                }
+            }
+            return null;
+        });
+    }
+
+    public void touch(String keyword, String model, String workerVersion) throws SQLException {
+        String sql = """
+            UPDATE research_cache SET last_accessed_at = ?
+            WHERE keyword = ? AND model = ? AND worker_version = ?
+        """;
+
+        database.write(db -> {
+            PreparedStatement stmt = db.prepare(sql);
+            stmt.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now()));
+            stmt.setString(2, keyword);
+            stmt.setString(3, model);
+            stmt.setString(4, workerVersion);
+            return stmt.executeUpdate();
+        });
+    }
+
+    public void upsert(String keyword, String model, String workerVersion, String ideasJson) throws SQLException {
+        String sql = """
+            INSERT OR REPLACE INTO research_cache (keyword, model, worker_version, ideas_json, created_at, last_accessed_at)
+            VALUES (?, ?, ?, ?, ?, ?)
+        """;
+
+        database.write(db -> {
+            PreparedStatement stmt = db.prepare(sql);
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            stmt.setString(1, keyword);
+            stmt.setString(2, model);
+            stmt.setString(3, workerVersion);
+            stmt.setString(4, ideasJson);
+            stmt.setTimestamp(5, now);
+            stmt.setTimestamp(6, now);
+            return stmt.executeUpdate();
+        });
+    }
+
+    public void delete(String keyword, String model, String workerVersion) throws SQLException {
+        String sql = "DELETE FROM research_cache WHERE keyword = ? AND model = ? AND worker_version = ?";
+
+        database.write(db -> {
+            PreparedStatement stmt = db.prepare(sql);
+            stmt.setString(1, keyword);
+            stmt.setString(2, model);
+            stmt.setString(3, workerVersion);
+            return stmt.executeUpdate();
+        });
+    }
+
+    /**
+     * Delete the least recently used entries beyond the given capacity.
+     *
+     * @param maxEntries Number of entries to keep
+     * @return Number of entries evicted
+     */
+    public int evictLeastRecentlyUsed(int maxEntries) throws SQLException {
+        String sql = """
+            DELETE FROM research_cache WHERE rowid IN (
+                SELECT rowid FROM research_cache ORDER BY last_accessed_at ASC
+                LIMIT MAX(0, (SELECT COUNT(*) FROM research_cache) - ?)
+            )
+        """;
+
+        return database.write(db -> {
+            PreparedStatement stmt = db.prepare(sql);
+            stmt.setInt(1, maxEntries);
+            return stmt.executeUpdate();
+        });
+    }
+
+    public int count() throws SQLException {
+        return database.read(db -> {
+            try (ResultSet rs = db.prepare("SELECT COUNT(*) FROM research_cache").executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        });
+    }
+}
@@ -0,0 +1,178 @@
+package com.kdp.autostudio.dao;
+
+import com.kdp.autostudio.database.DatabaseManager;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Access Object for the durable research queue.
+ * A job row carries the priority and overall status; each seed keyword is an
+ * item row that is checkpointed as soon as its ideas have been saved.
+ */
+public class ResearchJobDAO {
+
+    public record JobRow(long id, int priority, String status) {
+    }
+
+    public record ItemRow(long id, long jobId, String keyword, String status) {
+    }
+
+    private final DatabaseManager database;
+
+    public ResearchJobDAO() {
+        this(DatabaseManager.getInstance());
+    }
+
+    public ResearchJobDAO(DatabaseManager database) {
+        this.database = database;
+    }
+
+    /**
+     * Create a job and one pending item per keyword in a single write.
+     *
+     * @return The new job ID
+     */
+    public long createJob(List<String> keywords, int priority) throws SQLException {
+        String jobSql = "INSERT INTO research_jobs (priority, status, created_at) VALUES (?, 'queued', ?)";
+        String itemSql = """
+            INSERT INTO research_job_items (job_id, position, keyword, status, updated_at)
+            VALUES (?, ?, ?, 'pending', ?)
+        """;
+
+        return database.write(db -> {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            PreparedStatement jobStmt = db.prepare(jobSql);
+            jobStmt.setInt(1, priority);
+            jobStmt.setTimestamp(2, now);
+            jobStmt.executeUpdate();
+            long jobId = db.lastInsertId();
+
+            PreparedStatement itemStmt = db.prepare(itemSql);
+            for (int i = 0; i < keywords.size(); i++) {
+                itemStmt.setLong(1, jobId);
+                itemStmt.setInt(2, i);
+                itemStmt.setString(3, keywords.get(i));
+                itemStmt.setTimestamp(4, now);
+                itemStmt.addBatch();
+            }
+            itemStmt.executeBatch();
+            return jobId;
+        });
+    }
+
+    /**
+     * Jobs that have not finished, highest priority first, then oldest first.
+     */
+    public List<JobRow> findUnfinishedJobs() throws SQLException {
+        String sql = """
+            SELECT id, priority, status FROM research_jobs
+            WHERE status IN ('queued', 'running')
+            ORDER BY priority DESC, id ASC
+        """;
+
+        return database.read(db -> {
+            List<JobRow> jobs = new ArrayList<>();
+            try (ResultSet rs = db.prepare(sql).executeQuery()) {
+                while (rs.next()) {
+                    jobs.add(new JobRow(rs.getLong("id"), rs.getInt("priority"), rs.getString("status")));
+                }
+            }
+            return jobs;
+        });
+    }
+
+    /**
+     * Items of a job that still need to be researched, in their original order.
+     */
+    public List<ItemRow> findPendingItems(long jobId) throws SQLException {
+        String sql = """
+            SELECT id, job_id, keyword, status FROM research_job_items
+            WHERE job_id = ? AND status = 'pending'
+            ORDER BY position
+        """;
+
+        return database.read(db -> {
+            PreparedStatement stmt = db.prepare(sql);
+            stmt.setLong(1, jobId);
+            List<ItemRow> items = new ArrayList<>();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    items.add(new ItemRow(rs.getLong("id"), rs.getLong("job_id"),
+                            rs.getString("keyword"), rs.getString("status")));
+                }
+            }
+            return items;
+        });
+    }
+
+    public void markItemDone(long itemId, int ideaCount) throws SQLException {
+        String sql = "UPDATE research_job_items SET status = 'done', idea_count = ?, error = NULL, updated_at = ? WHERE id = ?";
+
+        database.write(db -> {
+            PreparedStatement stmt = db.prepare(sql);
+            stmt.setInt(1, ideaCount);
+            stmt.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
+            stmt.setLong(3, itemId);
+            return stmt.executeUpdate();
+        });
+    }
+
+    public void markItemFailed(long itemId, String error) throws SQLException {
+        String sql = "UPDATE research_job_items SET status = 'failed', error = ?, updated_at = ? WHERE id = ?";
+
+        database.write(db -> {
+            PreparedStatement stmt = db.prepare(sql);
+            stmt.setString(1, error);
+            stmt.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
+            stmt.setLong(3, itemId);
+            return stmt.executeUpdate();
+        });
+    }
+
+    /**
+     * Update a job's status, stamping started_at or finished_at as appropriate.
+     *
+     * @param status One of "running", "done" or "failed"
+     */
+    public void updateJobStatus(long jobId, String status) throws SQLException {
+        String column = "running".equals(status) ? "started_at" : "finished_at";
+        String sql = "UPDATE research_jobs SET status = ?, " + column + " = ? WHERE id = ?";
+
+        database.write(db -> {
+            PreparedStatement stmt = db.prepare(sql);
+            stmt.setString(1, status);
+            stmt.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
+            stmt.setLong(3, jobId);
+            return stmt.executeUpdate();
+        });
+    }
+
+    /**
+     * Put an interrupted job back in the queue, so it is resumed on the next start.
+     */
+    public void requeueJob(long jobId) throws SQLException {
+        String sql = "UPDATE research_jobs SET status = 'queued' WHERE id = ?";
+
+        database.write(db -> {
+            PreparedStatement stmt = db.prepare(sql);
+            stmt.setLong(1, jobId);
+            return stmt.executeUpdate();
+        });
+    }
+
+    public int countItems(long jobId, String status) throws SQLException {
+        String sql = "SELECT COUNT(*) FROM research_job_items WHERE job_id = ? AND status = ?";
+
+        return database.read(db -> {
+            PreparedStatement stmt = db.prepare(sql);
+            stmt.setLong(1, jobId);
+            stmt.setString(2, status);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        });
+    }
+}
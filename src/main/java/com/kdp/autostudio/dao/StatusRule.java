@@ -0,0 +1,38 @@
+package com.kdp.autostudio.dao;
+
+/**
+ * A bulk status transition: every idea in one status whose score falls in a range moves to another status.
+ *
+ * @param fromStatus Status of the ideas to move
+ * @param minScore Lowest score moved (inclusive), or null for no lower bound
+ * @param maxScore Score above which ideas are left alone (exclusive), or null for no upper bound
+ * @param toStatus Status to move the ideas to
+ */
+public record StatusRule(String fromStatus, Double minScore, Double maxScore, String toStatus) {
+
+    public StatusRule {
+        if (fromStatus == null || toStatus == null) {
+            throw new IllegalArgumentException("Both statuses are required");
+        }
+    }
+
+    /**
+     * Move ideas scoring below a threshold, e.g. reject every pending idea below 0.4.
+     */
+    public static StatusRule below(String fromStatus, double score, String toStatus) {
+        return new StatusRule(fromStatus, null, score, toStatus);
+    }
+
+    /**
+     * Move ideas scoring at or above a threshold, e.g. approve every pending idea from 0.8.
+     */
+    public static StatusRule atLeast(String fromStatus, double score, String toStatus) {
+        return new StatusRule(fromStatus, score, null, toStatus);
+    }
+
+    public boolean matches(String status, double score) {
+        return fromStatus.equals(status)
+            && (minScore == null || score >= minScore)
+            && (maxScore == null || score < maxScore);
+    }
+}
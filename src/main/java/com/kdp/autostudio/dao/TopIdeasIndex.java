@@ -0,0 +1,214 @@
+package com.kdp.autostudio.dao;
+
+import com.kdp.autostudio.model.IdeaSummary;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The best-scoring ideas of each status, and of all ideas, kept up to date as ideas change.
+ * A ranking holds at most a fixed number of summaries ordered like the backlog, so
+ * "top 50 pending ideas" is read from memory in time proportional to the 50.
+ *
+ * A ranking always holds the true best ideas of its status, but after ideas leave it or
+ * an unknown idea might have overtaken some of them it can hold fewer than requested.
+ * {@link #top} then answers null, and the caller reloads the ranking with {@link #load}.
+ * Not thread-safe; the owner synchronizes access.
+ */
+class TopIdeasIndex {
+    private final int capacity;
+
+    // Keyed by status, with the null key ranking every idea
+    private final Map<String, Ranking> rankings = new HashMap<>();
+
+    private static class Ranking {
+        private final NavigableMap<IdeaCursor, IdeaSummary> best = new TreeMap<>(IdeaCursor.BEST_FIRST);
+        private final Map<Integer, IdeaCursor> keys = new HashMap<>();
+        // Whether every idea of the status is here, not just the best ones
+        private boolean complete;
+
+        private void put(IdeaSummary summary) {
+            IdeaCursor key = IdeaCursor.of(summary);
+            best.put(key, summary);
+            keys.put(summary.id(), key);
+        }
+
+        private IdeaSummary remove(int id) {
+            IdeaCursor key = keys.remove(id);
+            return key == null ? null : best.remove(key);
+        }
+
+        /**
+         * Whether an idea ranking at this key belongs among the ideas held.
+         */
+        private boolean admits(IdeaCursor key) {
+            return complete || (!best.isEmpty() && IdeaCursor.BEST_FIRST.compare(key, best.lastKey()) < 0);
+        }
+
+        /**
+         * Drop every idea ranking at or after a key, as an unknown idea may now rank there.
+         */
+        private void truncateFrom(IdeaCursor key) {
+            NavigableMap<IdeaCursor, IdeaSummary> tail = best.tailMap(key, true);
+            tail.keySet().forEach(dropped -> keys.remove(dropped.id()));
+            tail.clear();
+            complete = false;
+        }
+    }
+
+    /**
+     * @param capacity Most ideas kept per ranking
+     */
+    TopIdeasIndex(int capacity) {
+        this.capacity = Math.max(1, capacity);
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    /**
+     * The best ideas of a status, or of all ideas for a null status, best first.
+     *
+     * @return Up to {@code limit} summaries, or null if the ranking cannot answer and must be loaded
+     */
+    List<IdeaSummary> top(String status, int limit) {
+        Ranking ranking = rankings.get(status);
+        if (ranking == null || (ranking.best.size() < limit && !ranking.complete)) {
+            return null;
+        }
+        List<IdeaSummary> top = new ArrayList<>(Math.min(limit, ranking.best.size()));
+        Iterator<IdeaSummary> it = ranking.best.values().iterator();
+        while (it.hasNext() && top.size() < limit) {
+            top.add(it.next());
+        }
+        return top;
+    }
+
+    /**
+     * Replace a ranking with the first {@link #capacity()} ideas of its status, read from the database.
+     */
+    void load(String status, List<IdeaSummary> best) {
+        Ranking ranking = new Ranking();
+        best.stream().limit(capacity).forEach(ranking::put);
+        ranking.complete = best.size() < capacity;
+        rankings.put(status, ranking);
+    }
+
+    /**
+     * Rank a newly saved idea.
+     */
+    void add(IdeaSummary summary) {
+        offer(rankings.get(summary.status()), summary);
+        offer(rankings.get(null), summary);
+    }
+
+    /**
+     * Apply a status change of some ideas. An idea that was in no ranking has an
+     * unknown score, so the ranking of the new status is dropped to be reloaded.
+     */
+    void moveStatus(Collection<Integer> ids, String status) {
+        Ranking all = rankings.get(null);
+        boolean unknown = false;
+        for (int id : ids) {
+            IdeaSummary moved = null;
+            for (Map.Entry<String, Ranking> entry : rankings.entrySet()) {
+                if (entry.getKey() != null) {
+                    IdeaSummary removed = entry.getValue().remove(id);
+                    moved = removed != null ? removed : moved;
+                }
+            }
+            if (all != null && all.keys.containsKey(id)) {
+                IdeaSummary summary = all.remove(id);
+                moved = withStatus(summary, status);
+                all.put(moved);
+            }
+            if (moved == null) {
+                unknown = true;
+            } else {
+                offer(rankings.get(status), withStatus(moved, status));
+            }
+        }
+        if (unknown) {
+            rankings.remove(status);
+        }
+    }
+
+    /**
+     * Apply a status rule that moved {@code updated} ideas. If ideas other than the
+     * ranked ones moved, the ranking of the target status is dropped to be reloaded.
+     */
+    void applyStatusRule(StatusRule rule, int updated) {
+        Set<Integer> ids = new LinkedHashSet<>();
+        for (Ranking ranking : List.of(rankingOrEmpty(rule.fromStatus()), rankingOrEmpty(null))) {
+            for (IdeaSummary summary : ranking.best.values()) {
+                if (rule.matches(summary.status(), summary.score())) {
+                    ids.add(summary.id());
+                }
+            }
+        }
+        moveStatus(ids, rule.toStatus());
+        if (updated > ids.size()) {
+            rankings.remove(rule.toStatus());
+        }
+    }
+
+    /**
+     * Apply new scores. Ranked ideas are moved to their new place, or dropped if they fell
+     * below what the ranking knows about; an unranked idea that now scores above the end of
+     * a ranking it may belong to cuts that ranking short at its new place.
+     */
+    void updateScores(int[] ids, double[] scores) {
+        for (Map.Entry<String, Ranking> entry : rankings.entrySet()) {
+            Ranking ranking = entry.getValue();
+            for (int i = 0; i < ids.length; i++) {
+                IdeaSummary summary = ranking.remove(ids[i]);
+                if (summary != null) {
+                    offer(ranking, withScore(summary, scores[i]));
+                } else if (!ranking.complete && ranking.admits(new IdeaCursor(scores[i], ids[i]))) {
+                    // Complete rankings hold every idea of their status, so an unranked idea is not of it
+                    ranking.truncateFrom(new IdeaCursor(scores[i], ids[i]));
+                }
+            }
+        }
+    }
+
+    void clear() {
+        rankings.clear();
+    }
+
+    private void offer(Ranking ranking, IdeaSummary summary) {
+        if (ranking == null || !ranking.admits(IdeaCursor.of(summary))) {
+            return;
+        }
+        ranking.put(summary);
+        if (ranking.best.size() > capacity) {
+            IdeaCursor last = ranking.best.pollLastEntry().getKey();
+            ranking.keys.remove(last.id());
+            ranking.complete = false;
+        }
+    }
+
+    private Ranking rankingOrEmpty(String status) {
+        Ranking ranking = rankings.get(status);
+        return ranking != null ? ranking : new Ranking();
+    }
+
+    private static IdeaSummary withStatus(IdeaSummary summary, String status) {
+        return new IdeaSummary(summary.id(), summary.keyword(), summary.title(), summary.score(),
+                               summary.demand(), summary.competition(), status);
+    }
+
+    private static IdeaSummary withScore(IdeaSummary summary, double score) {
+        return new IdeaSummary(summary.id(), summary.keyword(), summary.title(), score,
+                               summary.demand(), summary.competition(), summary.status());
+    }
+}
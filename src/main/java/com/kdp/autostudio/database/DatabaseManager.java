@@ -6,11 +6,29 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Savepoint;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
- * Manages SQLite database connection and initialization.
+ * Manages the SQLite database: initialization, a pool of read-only connections and a single writer.
+ * The database runs in WAL mode so readers never wait for the writer. Reads borrow one of
+ * a few query-only connections; all mutations are queued to one writer thread, which runs
+ * everything waiting in the queue in a single transaction (group commit). Each write runs
+ * under its own savepoint, so a failing write is rolled back without affecting the others.
  */
 public class DatabaseManager {
     private static final Logger logger = LoggerFactory.getLogger(DatabaseManager.class);
@@ -18,8 +36,40 @@ public class DatabaseManager {
     private static final String DB_DIR = System.getProperty("user.home") + File.separator + ".kdp-autostudio";
     private static final String DB_FILE = DB_DIR + File.separator + "autostudio.db";
     private static final String DB_URL = "jdbc:sqlite:" + DB_FILE;
+    private static final int READ_CONNECTIONS = 4;
+    private static final int MAX_WRITES_PER_COMMIT = 256;
+    private static final int BUSY_TIMEOUT_MILLIS = 5000;
 
     private Connection connection;
+    private PooledConnection writer;
+    private final List<PooledConnection> readers = new ArrayList<>();
+    private BlockingQueue<PooledConnection> idleReaders;
+    private final BlockingQueue<PendingWrite<?>> writes = new LinkedBlockingQueue<>();
+    private Thread writerThread;
+    private volatile boolean closed;
+
+    private static class PendingWrite<T> {
+        private final SqlWork<T> work;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private T value;
+        private Exception error;
+
+        PendingWrite(SqlWork<T> work) {
+            this.work = work;
+        }
+
+        void run(PooledConnection db) throws SQLException {
+            value = work.run(db);
+        }
+
+        void finish() {
+            if (error != null) {
+                result.completeExceptionally(error);
+            } else {
+                result.complete(value);
+            }
+        }
+    }
 
     private DatabaseManager() {
     }
@@ -40,110 +90,226 @@ public class DatabaseManager {
             }
 
             connection = DriverManager.getConnection(DB_URL);
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("PRAGMA journal_mode = WAL");
+                stmt.execute("PRAGMA synchronous = NORMAL");
+                stmt.execute("PRAGMA busy_timeout = " + BUSY_TIMEOUT_MILLIS);
+            }
             logger.info("Connected to database: {}", DB_FILE);
 
-            createTables();
+            new SchemaMigrator(connection).migrate();
+
+            connection.setAutoCommit(false);
+            writer = new PooledConnection(connection);
+            idleReaders = new ArrayBlockingQueue<>(READ_CONNECTIONS);
+            for (int i = 0; i < READ_CONNECTIONS; i++) {
+                Connection reader = DriverManager.getConnection(DB_URL);
+                try (Statement stmt = reader.createStatement()) {
+                    stmt.execute("PRAGMA query_only = ON");
+                    stmt.execute("PRAGMA busy_timeout = " + BUSY_TIMEOUT_MILLIS);
+                }
+                PooledConnection pooled = new PooledConnection(reader);
+                readers.add(pooled);
+                idleReaders.add(pooled);
+            }
+
+            writerThread = new Thread(this::runWriter, "sqlite-writer");
+            writerThread.setDaemon(true);
+            writerThread.start();
         } catch (SQLException e) {
             logger.error("Failed to initialize database", e);
             throw new RuntimeException("Database initialization failed", e);
         }
     }
 
-    private void createTables() throws SQLException {
-        try (Statement stmt = connection.createStatement()) {
-            // Ideas table
-            stmt.execute("""
-                CREATE TABLE IF NOT EXISTS ideas (
-                    id INTEGER PRIMARY KEY AUTOINCREMENT,
-                    keyword TEXT NOT NULL,
-                    title TEXT,
-                    subtitle TEXT,
-                    demand REAL DEFAULT 0.0,
-                    competition REAL DEFAULT 0.0,
-                    margin REAL DEFAULT 0.0,
-                    effort REAL DEFAULT 0.0,
-                    novelty REAL DEFAULT 0.0,
-                    score REAL DEFAULT 0.0,
-                    risk TEXT,
-                    profitability TEXT,
-                    ai_explanation TEXT,
-                    status TEXT DEFAULT 'pending',
-                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                    approved_at TIMESTAMP
-                )
-            """);
-
-            // Competitors table
-            stmt.execute("""
-                CREATE TABLE IF NOT EXISTS competitors (
-                    id INTEGER PRIMARY KEY AUTOINCREMENT,
-                    idea_id INTEGER,
-                    asin TEXT,
-                    title TEXT,
-                    subtitle TEXT,
-                    price REAL,
-                    bsr INTEGER,
-                    category TEXT,
-                    review_count INTEGER,
-                    rating REAL,
-                    scraped_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                    FOREIGN KEY (idea_id) REFERENCES ideas(id)
-                )
-            """);
-
-            // Projects table
-            stmt.execute("""
-                CREATE TABLE IF NOT EXISTS projects (
-                    id INTEGER PRIMARY KEY AUTOINCREMENT,
-                    idea_id INTEGER,
-                    title TEXT NOT NULL,
-                    subtitle TEXT,
-                    status TEXT DEFAULT 'draft',
-                    interior_path TEXT,
-                    cover_path TEXT,
-                    metadata_path TEXT,
-                    bundle_path TEXT,
-                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                    completed_at TIMESTAMP,
-                    FOREIGN KEY (idea_id) REFERENCES ideas(id)
-                )
-            """);
-
-            // Analytics table
-            stmt.execute("""
-                CREATE TABLE IF NOT EXISTS analytics (
-                    id INTEGER PRIMARY KEY AUTOINCREMENT,
-                    project_id INTEGER,
-                    asin TEXT,
-                    bsr INTEGER,
-                    price REAL,
-                    review_count INTEGER,
-                    rating REAL,
-                    recorded_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                    FOREIGN KEY (project_id) REFERENCES projects(id)
-                )
-            """);
-
-            logger.info("Database tables created successfully");
+    /**
+     * Run read-only work on a pooled connection, waiting for one to become free if necessary.
+     * Reads see the last committed state; they do not wait for the writer.
+     */
+    public <T> T read(SqlWork<T> work) throws SQLException {
+        PooledConnection db = takeReader();
+        try {
+            return work.run(db);
+        } finally {
+            idleReaders.add(db);
+        }
+    }
+
+    /**
+     * Run a query on a pooled connection and map its rows lazily as the stream is consumed.
+     * The connection stays borrowed until the stream is closed, so callers must close it,
+     * normally with try-with-resources. SQL errors while reading rows are rethrown as
+     * RuntimeException.
+     */
+    public <T> Stream<T> stream(SqlWork<ResultSet> query, RowMapper<T> mapper) throws SQLException {
+        PooledConnection db = takeReader();
+        ResultSet rs;
+        try {
+            rs = query.run(db);
+        } catch (SQLException | RuntimeException e) {
+            idleReaders.add(db);
+            throw e;
+        }
+
+        Spliterator<T> rows = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    if (!rs.next()) {
+                        return false;
+                    }
+                    action.accept(mapper.map(rs));
+                    return true;
+                } catch (SQLException e) {
+                    throw new RuntimeException("Failed to read database row", e);
+                }
+            }
+        };
+        return StreamSupport.stream(rows, false).onClose(() -> {
+            try {
+                rs.close();
+            } catch (SQLException e) {
+                logger.warn("Error closing streamed result set", e);
+            } finally {
+                idleReaders.add(db);
+            }
+        });
+    }
+
+    private PooledConnection takeReader() throws SQLException {
+        BlockingQueue<PooledConnection> pool = requirePool();
+        try {
+            return pool.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+    }
+
+    /**
+     * Run a mutation on the writer thread and wait until it has been committed.
+     * The work runs inside a transaction shared with other queued writes; it must not
+     * commit or roll back itself. Throwing rolls back only this work.
+     */
+    public <T> T write(SqlWork<T> work) throws SQLException {
+        requirePool();
+        if (Thread.currentThread() == writerThread) {
+            // Nested write from inside another write: already in the transaction
+            return work.run(writer);
+        }
+        if (closed) {
+            throw new SQLException("Database is closed");
+        }
+
+        PendingWrite<T> pending = new PendingWrite<>(work);
+        writes.add(pending);
+        try {
+            return pending.result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database write", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException sql) {
+                throw sql;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new SQLException(cause);
         }
     }
 
-    public Connection getConnection() {
-        if (connection == null) {
+    private BlockingQueue<PooledConnection> requirePool() {
+        if (idleReaders == null) {
             throw new IllegalStateException("Database not initialized. Call initializeDatabase() first.");
         }
-        return connection;
+        return idleReaders;
     }
 
-    public void close() {
-        if (connection != null) {
+    private void runWriter() {
+        List<PendingWrite<?>> group = new ArrayList<>();
+        while (true) {
             try {
-                connection.close();
-                logger.info("Database connection closed");
-            } catch (SQLException e) {
-                logger.error("Error closing database connection", e);
+                group.add(writes.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            writes.drainTo(group, MAX_WRITES_PER_COMMIT - 1);
+
+            boolean stop = group.removeIf(pending -> pending.work == null);
+            if (!group.isEmpty()) {
+                commitGroup(group);
+            }
+            group.clear();
+            if (stop) {
+                break;
             }
         }
     }
-}
 
+    private void commitGroup(List<PendingWrite<?>> group) {
+        for (PendingWrite<?> pending : group) {
+            Savepoint savepoint = null;
+            try {
+                savepoint = connection.setSavepoint();
+                pending.run(writer);
+                connection.releaseSavepoint(savepoint);
+            } catch (SQLException | RuntimeException e) {
+                pending.error = e;
+                if (savepoint != null) {
+                    try {
+                        connection.rollback(savepoint);
+                        connection.releaseSavepoint(savepoint);
+                    } catch (SQLException rollbackError) {
+                        logger.error("Could not roll back failed database write", rollbackError);
+                    }
+                }
+            }
+        }
+
+        try {
+            connection.commit();
+        } catch (SQLException e) {
+            logger.error("Group commit of {} writes failed", group.size(), e);
+            try {
+                connection.rollback();
+            } catch (SQLException rollbackError) {
+                logger.error("Could not roll back failed group commit", rollbackError);
+            }
+            for (PendingWrite<?> pending : group) {
+                if (pending.error == null) {
+                    pending.error = e;
+                }
+            }
+        }
+        group.forEach(PendingWrite::finish);
+    }
+
+    public void close() {
+        if (closed || writer == null) {
+            return;
+        }
+        closed = true;
+
+        // Let queued writes commit, then stop the writer
+        writes.add(new PendingWrite<>(null));
+        try {
+            writerThread.join(BUSY_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        PendingWrite<?> abandoned;
+        while ((abandoned = writes.poll()) != null) {
+            if (abandoned.work != null) {
+                abandoned.error = new SQLException("Database is closed");
+                abandoned.finish();
+            }
+        }
+
+        readers.forEach(PooledConnection::close);
+        writer.close();
+        logger.info("Database connection closed");
+    }
+}
@@ -0,0 +1,92 @@
+package com.kdp.autostudio.database;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A pooled SQLite connection with a cache of prepared statements.
+ * Statements returned by {@link #prepare(String)} belong to the cache and are reused
+ * by later calls with the same SQL, so callers must close their result sets but never
+ * the statements themselves. A connection is used by one thread at a time.
+ */
+public class PooledConnection {
+    private static final Logger logger = LoggerFactory.getLogger(PooledConnection.class);
+    private static final int STATEMENT_CACHE_SIZE = 64;
+
+    private final Connection connection;
+    private final Map<String, PreparedStatement> statements =
+        new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() <= STATEMENT_CACHE_SIZE) {
+                    return false;
+                }
+                closeQuietly(eldest.getValue());
+                return true;
+            }
+        };
+
+    PooledConnection(Connection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * Get a cached statement for the SQL, preparing it on first use.
+     * Parameters and batch left over from a previous use are cleared.
+     */
+    public PreparedStatement prepare(String sql) throws SQLException {
+        PreparedStatement stmt = statements.get(sql);
+        if (stmt == null) {
+            stmt = connection.prepareStatement(sql);
+            statements.put(sql, stmt);
+        } else {
+            stmt.clearParameters();
+            stmt.clearBatch();
+        }
+        return stmt;
+    }
+
+    /**
+     * Row ID of the last row inserted on this connection.
+     */
+    public long lastInsertId() throws SQLException {
+        try (ResultSet rs = prepare("SELECT last_insert_rowid()").executeQuery()) {
+            if (!rs.next()) {
+                throw new SQLException("No row ID available");
+            }
+            return rs.getLong(1);
+        }
+    }
+
+    /**
+     * The underlying connection, for statements that are not worth caching.
+     */
+    public Connection getConnection() {
+        return connection;
+    }
+
+    void close() {
+        statements.values().forEach(PooledConnection::closeQuietly);
+        statements.clear();
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            logger.warn("Error closing database connection", e);
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement stmt) {
+        try {
+            stmt.close();
+        } catch (SQLException e) {
+            logger.debug("Error closing cached statement", e);
+        }
+    }
+}
@@ -0,0 +1,370 @@
+package com.kdp.autostudio.database;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Brings the database schema up to date by applying numbered migrations.
+ * The applied version is recorded in the schema_version table. Each pending migration
+ * runs in its own transaction together with its version row, so an interrupted upgrade
+ * leaves the database at the last fully applied version and is resumed on the next start.
+ * Migrations are append-only: never edit one that has shipped, add a new one instead.
+ */
+public class SchemaMigrator {
+    private static final Logger logger = LoggerFactory.getLogger(SchemaMigrator.class);
+
+    /**
+     * One schema change.
+     *
+     * @param version Version the schema is at once the migration has been applied
+     * @param description Short description recorded in schema_version
+     * @param statements SQL statements applied in order
+     */
+    public record Migration(int version, String description, List<String> statements) {
+    }
+
+    static final List<Migration> MIGRATIONS = List.of(
+        // Tables that existed before versioning; IF NOT EXISTS makes this safe on existing databases
+        new Migration(1, "Baseline tables", List.of(
+            // Ideas table
+            """
+            CREATE TABLE IF NOT EXISTS ideas (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                keyword TEXT NOT NULL,
+                title TEXT,
+                subtitle TEXT,
+                demand REAL DEFAULT 0.0,
+                competition REAL DEFAULT 0.0,
+                margin REAL DEFAULT 0.0,
+                effort REAL DEFAULT 0.0,
+                novelty REAL DEFAULT 0.0,
+                score REAL DEFAULT 0.0,
+                risk TEXT,
+                profitability TEXT,
+                ai_explanation TEXT,
+                status TEXT DEFAULT 'pending',
+                created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                approved_at TIMESTAMP
+            )
+            """,
+
+            // Competitors table
+            """
+            CREATE TABLE IF NOT EXISTS competitors (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                idea_id INTEGER,
+                asin TEXT,
+                title TEXT,
+                subtitle TEXT,
+                price REAL,
+                bsr INTEGER,
+                category TEXT,
+                review_count INTEGER,
+                rating REAL,
+                scraped_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                FOREIGN KEY (idea_id) REFERENCES ideas(id)
+            )
+            """,
+
+            // Projects table
+            """
+            CREATE TABLE IF NOT EXISTS projects (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                idea_id INTEGER,
+                title TEXT NOT NULL,
+                subtitle TEXT,
+                status TEXT DEFAULT 'draft',
+                interior_path TEXT,
+                cover_path TEXT,
+                metadata_path TEXT,
+                bundle_path TEXT,
+                created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                completed_at TIMESTAMP,
+                FOREIGN KEY (idea_id) REFERENCES ideas(id)
+            )
+            """,
+
+            // Analytics table
+            """
+            CREATE TABLE IF NOT EXISTS analytics (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                project_id INTEGER,
+                asin TEXT,
+                bsr INTEGER,
+                price REAL,
+                review_count INTEGER,
+                rating REAL,
+                recorded_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                FOREIGN KEY (project_id) REFERENCES projects(id)
+            )
+            """,
+
+            // Research cache table
+            """
+            CREATE TABLE IF NOT EXISTS research_cache (
+                keyword TEXT NOT NULL,
+                model TEXT NOT NULL,
+                worker_version TEXT NOT NULL,
+                ideas_json TEXT NOT NULL,
+                created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                last_accessed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                PRIMARY KEY (keyword, model, worker_version)
+            )
+            """,
+
+            // Durable research job queue
+            """
+            CREATE TABLE IF NOT EXISTS research_jobs (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                priority INTEGER DEFAULT 0,
+                status TEXT DEFAULT 'queued',
+                created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                started_at TIMESTAMP,
+                finished_at TIMESTAMP
+            )
+            """,
+
+            """
+            CREATE TABLE IF NOT EXISTS research_job_items (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                job_id INTEGER NOT NULL,
+                position INTEGER NOT NULL,
+                keyword TEXT NOT NULL,
+                status TEXT DEFAULT 'pending',
+                idea_count INTEGER DEFAULT 0,
+                error TEXT,
+                updated_at TIMESTAMP,
+                FOREIGN KEY (job_id) REFERENCES research_jobs(id)
+            )
+            """
+        )),
+
+        new Migration(2, "Indexes for backlog, foreign key and queue lookups", List.of(
+            // findByStatus filters by status and sorts by score; the id column makes the order total
+            "CREATE INDEX IF NOT EXISTS idx_ideas_status_score ON ideas (status, score DESC, id)",
+            // findAll sorts the whole backlog by score
+            "CREATE INDEX IF NOT EXISTS idx_ideas_score ON ideas (score DESC, id)",
+            "CREATE INDEX IF NOT EXISTS idx_competitors_idea_id ON competitors (idea_id)",
+            "CREATE INDEX IF NOT EXISTS idx_projects_idea_id ON projects (idea_id)",
+            "CREATE INDEX IF NOT EXISTS idx_analytics_project_recorded ON analytics (project_id, recorded_at)",
+            "CREATE INDEX IF NOT EXISTS idx_research_cache_accessed ON research_cache (last_accessed_at)",
+            "CREATE INDEX IF NOT EXISTS idx_research_jobs_status ON research_jobs (status, priority DESC, id)",
+            "CREATE INDEX IF NOT EXISTS idx_research_job_items_job ON research_job_items (job_id, status, position)",
+            // Give the query planner statistics for the new indexes
+            "ANALYZE"
+        )),
+
+        new Migration(3, "Full-text search over ideas", List.of(
+            // External-content index: the text lives in ideas, the index only stores tokens.
+            // Prefix indexes make search-as-you-type on two and three letter prefixes an index lookup.
+            """
+            CREATE VIRTUAL TABLE IF NOT EXISTS ideas_fts USING fts5(
+                keyword, title, subtitle, ai_explanation,
+                content = 'ideas', content_rowid = 'id',
+                tokenize = 'unicode61 remove_diacritics 2',
+                prefix = '2 3'
+            )
+            """,
+            """
+            CREATE TRIGGER IF NOT EXISTS ideas_fts_insert AFTER INSERT ON ideas BEGIN
+                INSERT INTO ideas_fts (rowid, keyword, title, subtitle, ai_explanation)
+                VALUES (new.id, new.keyword, new.title, new.subtitle, new.ai_explanation);
+            END
+            """,
+            """
+            CREATE TRIGGER IF NOT EXISTS ideas_fts_delete AFTER DELETE ON ideas BEGIN
+                INSERT INTO ideas_fts (ideas_fts, rowid, keyword, title, subtitle, ai_explanation)
+                VALUES ('delete', old.id, old.keyword, old.title, old.subtitle, old.ai_explanation);
+            END
+            """,
+            // Status and score changes do not touch the indexed text, so they skip the index
+            """
+            CREATE TRIGGER IF NOT EXISTS ideas_fts_update
+            AFTER UPDATE OF keyword, title, subtitle, ai_explanation ON ideas BEGIN
+                INSERT INTO ideas_fts (ideas_fts, rowid, keyword, title, subtitle, ai_explanation)
+                VALUES ('delete', old.id, old.keyword, old.title, old.subtitle, old.ai_explanation);
+                INSERT INTO ideas_fts (rowid, keyword, title, subtitle, ai_explanation)
+                VALUES (new.id, new.keyword, new.title, new.subtitle, new.ai_explanation);
+            END
+            """,
+            // Index the ideas that already exist
+            "INSERT INTO ideas_fts (ideas_fts) VALUES ('rebuild')"
+        )),
+
+        new Migration(4, "One competitor row per idea and ASIN", List.of(
+            // Keep the latest scrape of each listing before enforcing uniqueness
+            "DELETE FROM competitors WHERE id NOT IN (SELECT MAX(id) FROM competitors GROUP BY idea_id, asin)",
+            // The unique index also serves lookups by idea_id, so the old index is redundant
+            "DROP INDEX IF EXISTS idx_competitors_idea_id",
+            "CREATE UNIQUE INDEX IF NOT EXISTS idx_competitors_idea_asin ON competitors (idea_id, asin)"
+        )),
+
+        new Migration(5, "Daily and weekly analytics rollups", List.of(
+            // Raw samples are read by ASIN and time range for short windows
+            "CREATE INDEX IF NOT EXISTS idx_analytics_asin_recorded ON analytics (asin, recorded_at)",
+            rollupTable("analytics_daily"),
+            rollupTable("analytics_weekly")
+        )),
+
+        new Migration(6, "One competitor listing per ASIN, linked to ideas", List.of(
+            // Every research run creates new ideas, so listings keyed by idea were copied on each re-scrape
+            """
+            CREATE TABLE IF NOT EXISTS competitor_listings (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                asin TEXT NOT NULL UNIQUE,
+                title TEXT,
+                subtitle TEXT,
+                price REAL,
+                bsr INTEGER,
+                category TEXT,
+                review_count INTEGER,
+                rating REAL,
+                scraped_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+            )
+            """,
+            """
+            CREATE TABLE IF NOT EXISTS idea_competitors (
+                idea_id INTEGER NOT NULL,
+                asin TEXT NOT NULL,
+                PRIMARY KEY (idea_id, asin),
+                FOREIGN KEY (idea_id) REFERENCES ideas(id)
+            ) WITHOUT ROWID
+            """,
+            // Keep the latest scrape of each ASIN, and every idea it was scraped for
+            """
+            INSERT OR IGNORE INTO competitor_listings (asin, title, subtitle, price, bsr, category,
+                                                      review_count, rating, scraped_at)
+            SELECT asin, title, subtitle, price, bsr, category, review_count, rating, scraped_at
+            FROM competitors
+            WHERE id IN (SELECT MAX(id) FROM competitors WHERE asin IS NOT NULL AND asin <> '' GROUP BY asin)
+            """,
+            """
+            INSERT OR IGNORE INTO idea_competitors (idea_id, asin)
+            SELECT idea_id, asin FROM competitors
+            WHERE idea_id IS NOT NULL AND asin IS NOT NULL AND asin <> ''
+            """,
+            "DROP TABLE IF EXISTS competitors"
+        ))
+    );
+
+    /**
+     * One row per ASIN and period. BSR is kept as min, max and sum so rows can be
+     * updated one sample at a time; first and last values give the review delta.
+     */
+    private static String rollupTable(String name) {
+        return """
+            CREATE TABLE IF NOT EXISTS %s (
+                asin TEXT NOT NULL,
+                bucket_start TEXT NOT NULL,
+                samples INTEGER NOT NULL,
+                min_bsr INTEGER,
+                max_bsr INTEGER,
+                sum_bsr INTEGER NOT NULL DEFAULT 0,
+                bsr_samples INTEGER NOT NULL DEFAULT 0,
+                first_recorded_at TIMESTAMP NOT NULL,
+                first_review_count INTEGER,
+                last_recorded_at TIMESTAMP NOT NULL,
+                last_review_count INTEGER,
+                last_price REAL,
+                last_rating REAL,
+                PRIMARY KEY (asin, bucket_start)
+            ) WITHOUT ROWID
+            """.formatted(name);
+    }
+
+    private final Connection connection;
+    private final List<Migration> migrations;
+
+    /**
+     * @param connection Connection to migrate, in auto-commit mode; no other connection may write meanwhile
+     */
+    public SchemaMigrator(Connection connection) {
+        this(connection, MIGRATIONS);
+    }
+
+    SchemaMigrator(Connection connection, List<Migration> migrations) {
+        this.connection = connection;
+        this.migrations = migrations;
+    }
+
+    /**
+     * Apply every migration newer than the database's current version.
+     *
+     * @return The schema version after migrating
+     * @throws SQLException if a migration fails, or the database was written by a newer version of the app
+     */
+    public int migrate() throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS schema_version (
+                    version INTEGER PRIMARY KEY,
+                    description TEXT NOT NULL,
+                    applied_at TIMESTAMP NOT NULL
+                )
+            """);
+        }
+
+        int current = getCurrentVersion();
+        int latest = migrations.isEmpty() ? 0 : migrations.get(migrations.size() - 1).version();
+        if (current > latest) {
+            throw new SQLException("Database schema version " + current
+                    + " is newer than this application supports (" + latest + ")");
+        }
+
+        for (Migration migration : migrations) {
+            if (migration.version() > current) {
+                apply(migration);
+                current = migration.version();
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Highest applied migration version, or 0 for a database that has never been migrated.
+     */
+    public int getCurrentVersion() throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT MAX(version) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private void apply(Migration migration) throws SQLException {
+        long start = System.nanoTime();
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            try (Statement stmt = connection.createStatement()) {
+                for (String sql : migration.statements()) {
+                    stmt.execute(sql);
+                }
+            }
+            try (PreparedStatement stmt = connection.prepareStatement(
+                    "INSERT INTO schema_version (version, description, applied_at) VALUES (?, ?, ?)")) {
+                stmt.setInt(1, migration.version());
+                stmt.setString(2, migration.description());
+                stmt.setTimestamp(3, Timestamp.valueOf(LocalDateTime.now()));
+                stmt.executeUpdate();
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw new SQLException("Schema migration " + migration.version() + " (" + migration.description()
+                    + ") failed", e);
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+        logger.info("Applied schema migration {}: {} in {} ms", migration.version(), migration.description(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,13 @@
+package com.kdp.autostudio.database;
+
+import java.sql.SQLException;
+
+/**
+ * A unit of database work run on a pooled connection by {@link DatabaseManager}.
+ *
+ * @param <T> Result of the work
+ */
+@FunctionalInterface
+public interface SqlWork<T> {
+    T run(PooledConnection db) throws SQLException;
+}
@@ -0,0 +1,132 @@
+package com.kdp.autostudio.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * An Amazon listing competing with an idea, as scraped during research.
+ */
+public class Competitor {
+    private Integer id;
+    private Integer ideaId;
+    private String asin;
+    private String title;
+    private String subtitle;
+    private double price;
+    private Integer bsr;
+    private String category;
+    private int reviewCount;
+    private double rating;
+    private LocalDateTime scrapedAt;
+
+    // Constructors
+    public Competitor() {
+        this.scrapedAt = LocalDateTime.now();
+    }
+
+    // Getters and setters
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public Integer getIdeaId() {
+        return ideaId;
+    }
+
+    public void setIdeaId(Integer ideaId) {
+        this.ideaId = ideaId;
+    }
+
+    public String getAsin() {
+        return asin;
+    }
+
+    public void setAsin(String asin) {
+        this.asin = asin;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getSubtitle() {
+        return subtitle;
+    }
+
+    public void setSubtitle(String subtitle) {
+        this.subtitle = subtitle;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public void setPrice(double price) {
+        this.price = price;
+    }
+
+    public Integer getBsr() {
+        return bsr;
+    }
+
+    public void setBsr(Integer bsr) {
+        this.bsr = bsr;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public int getReviewCount() {
+        return reviewCount;
+    }
+
+    public void setReviewCount(int reviewCount) {
+        this.reviewCount = reviewCount;
+    }
+
+    public double getRating() {
+        return rating;
+    }
+
+    public void setRating(double rating) {
+        this.rating = rating;
+    }
+
+    public LocalDateTime getScrapedAt() {
+        return scrapedAt;
+    }
+
+    public void setScrapedAt(LocalDateTime scrapedAt) {
+        this.scrapedAt = scrapedAt;
+    }
+
+    /**
+     * Copy of this listing attached to another idea.
+     */
+    public Competitor forIdea(int ideaId) {
+        Competitor copy = new Competitor();
+        copy.ideaId = ideaId;
+        copy.asin = asin;
+        copy.title = title;
+        copy.subtitle = subtitle;
+        copy.price = price;
+        copy.bsr = bsr;
+        copy.category = category;
+        copy.reviewCount = reviewCount;
+        copy.rating = rating;
+        copy.scrapedAt = scrapedAt;
+        return copy;
+    }
+}
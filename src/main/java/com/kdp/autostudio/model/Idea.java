@@ -163,6 +163,30 @@ public class Idea {
         this.approvedAt = approvedAt;
     }
 
+    /**
+     * Copy of this idea, to change without affecting the original.
+     */
+    public Idea copy() {
+        Idea copy = new Idea();
+        copy.id = id;
+        copy.keyword = keyword;
+        copy.title = title;
+        copy.subtitle = subtitle;
+        copy.demand = demand;
+        copy.competition = competition;
+        copy.margin = margin;
+        copy.effort = effort;
+        copy.novelty = novelty;
+        copy.score = score;
+        copy.risk = risk;
+        copy.profitability = profitability;
+        copy.aiExplanation = aiExplanation;
+        copy.status = status;
+        copy.createdAt = createdAt;
+        copy.approvedAt = approvedAt;
+        return copy;
+    }
+
     /**
      * Calculates the overall score based on configured weights.
      */
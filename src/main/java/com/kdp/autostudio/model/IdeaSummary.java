@@ -0,0 +1,10 @@
+package com.kdp.autostudio.model;
+
+/**
+ * The columns of an idea needed to list it in the backlog.
+ * Leaves out the long text fields (AI explanation, risk, profitability), which are
+ * loaded with the full {@link Idea} only when its details are opened.
+ */
+public record IdeaSummary(int id, String keyword, String title, double score, double demand,
+                          double competition, String status) {
+}
@@ -0,0 +1,226 @@
+package com.kdp.autostudio.service;
+
+import com.kdp.autostudio.dao.ResearchJobDAO;
+import com.kdp.autostudio.model.Idea;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs research jobs from the durable SQLite queue.
+ * Every keyword is checkpointed as done once its ideas are saved, so after a
+ * crash {@link #resumeUnfinished()} only re-runs the keywords that had not
+ * completed. Keywords whose research failed are retried before the job is
+ * given up on; a job interrupted by the application shutting down is left
+ * queued with its unfinished keywords pending. Job priorities carry through to the scheduler, letting
+ * interactive jobs overtake bulk batches.
+ */
+public class DurableResearchRunner {
+    private static final Logger logger = LoggerFactory.getLogger(DurableResearchRunner.class);
+    private static final int MAX_ATTEMPTS = 2;
+
+    private final ResearchService researchService;
+    private final ResearchJobDAO jobDAO;
+
+    public DurableResearchRunner(ResearchService researchService) {
+        this(researchService, new ResearchJobDAO());
+    }
+
+    public DurableResearchRunner(ResearchService researchService, ResearchJobDAO jobDAO) {
+        this.researchService = researchService;
+        this.jobDAO = jobDAO;
+    }
+
+    /**
+     * Persist a job and start running it.
+     *
+     * @param keywords Seed keywords to research
+     * @param priority Scheduling priority, e.g. {@link ResearchJob#PRIORITY_BULK}
+     * @return Future that completes with the job ID once every item has run
+     * @throws SQLException if the job cannot be persisted
+     */
+    public CompletableFuture<Long> submit(List<String> keywords, int priority) throws SQLException {
+        long jobId = create(keywords, priority);
+        return run(jobId, priority, idea -> { }).thenApply(ignored -> jobId);
+    }
+
+    /**
+     * Persist a job and start running it, reporting its progress as it happens.
+     *
+     * @param keywords Seed keywords to research
+     * @param priority Scheduling priority, e.g. {@link ResearchJob#PRIORITY_INTERACTIVE}
+     * @param listener Receives the job's ideas, phases and finished keywords
+     * @return Future with the number of ideas and the keywords that still failed after retrying
+     * @throws SQLException if the job cannot be persisted
+     */
+    public CompletableFuture<ResearchResult> submit(List<String> keywords, int priority,
+                                                    ResearchListener listener) throws SQLException {
+        return run(create(keywords, priority), priority, listener);
+    }
+
+    /**
+     * Resume every job left unfinished by a previous run, highest priority first.
+     * Completed keywords are skipped. Nobody is waiting on a resumed job, so it
+     * runs no higher than {@link ResearchJob#PRIORITY_BULK}.
+     *
+     * @return Number of jobs resumed
+     */
+    public int resumeUnfinished() throws SQLException {
+        List<ResearchJobDAO.JobRow> jobs = jobDAO.findUnfinishedJobs();
+        for (ResearchJobDAO.JobRow job : jobs) {
+            logger.info("Resuming durable research job {} (priority {})", job.id(), job.priority());
+            run(job.id(), Math.min(job.priority(), ResearchJob.PRIORITY_BULK), idea -> { });
+        }
+        return jobs.size();
+    }
+
+    public ResearchService getResearchService() {
+        return researchService;
+    }
+
+    private long create(List<String> keywords, int priority) throws SQLException {
+        long jobId = jobDAO.createJob(keywords, priority);
+        logger.info("Durable research job {} created with {} keywords", jobId, keywords.size());
+        return jobId;
+    }
+
+    private CompletableFuture<ResearchResult> run(long jobId, int priority, ResearchListener listener)
+            throws SQLException {
+        List<ResearchJobDAO.ItemRow> items = jobDAO.findPendingItems(jobId);
+        if (items.isEmpty()) {
+            finish(jobId);
+            return CompletableFuture.completedFuture(new ResearchResult(List.of(), 0, List.of()));
+        }
+
+        // Written from worker threads as keywords finish
+        Map<String, Long> itemIds = new ConcurrentHashMap<>();
+        List<String> keywords = new ArrayList<>();
+        for (ResearchJobDAO.ItemRow item : items) {
+            itemIds.put(ResearchCache.normalize(item.keyword()), item.id());
+            keywords.add(item.keyword());
+        }
+        jobDAO.updateJobStatus(jobId, "running");
+
+        ResearchListener checkpoint = new ResearchListener() {
+            @Override
+            public void onIdea(Idea idea) {
+                listener.onIdea(idea);
+            }
+
+            @Override
+            public void onPhase(String keyword, String phase, boolean started) {
+                listener.onPhase(keyword, phase, started);
+            }
+
+            @Override
+            public void onKeywordDone(String keyword, int ideaCount) {
+                Long itemId = itemIds.remove(ResearchCache.normalize(keyword));
+                if (itemId != null) {
+                    try {
+                        jobDAO.markItemDone(itemId, ideaCount);
+                    } catch (SQLException e) {
+                        logger.error("Could not checkpoint keyword '{}' of job {}", keyword, jobId, e);
+                    }
+                }
+                listener.onKeywordDone(keyword, ideaCount);
+            }
+        };
+
+        return attempt(jobId, keywords, itemIds, checkpoint, priority, 1, 0)
+            .whenComplete((result, error) -> {
+                if (researchService.isShutdown() && !itemIds.isEmpty()) {
+                    requeue(jobId, itemIds.size());
+                    return;
+                }
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                String reason = cause != null ? cause.getMessage() : "Research failed";
+                // Whatever was not checkpointed did not complete
+                for (Long itemId : itemIds.values()) {
+                    try {
+                        jobDAO.markItemFailed(itemId, reason);
+                    } catch (SQLException e) {
+                        logger.error("Could not record failure of item {} in job {}", itemId, jobId, e);
+                    }
+                }
+                finish(jobId);
+            });
+    }
+
+    /**
+     * Research the keywords that have not been checkpointed yet, retrying those that
+     * fail until {@link #MAX_ATTEMPTS} is reached, the job is cancelled or the service shuts down.
+     */
+    private CompletableFuture<ResearchResult> attempt(long jobId, List<String> keywords, Map<String, Long> itemIds,
+                                                      ResearchListener checkpoint, int priority, int attempt,
+                                                      int ideaCount) {
+        List<String> pending = pending(keywords, itemIds);
+        return researchService.runResearch(pending, checkpoint, false, priority)
+            .handle((result, error) -> {
+                int ideas = ideaCount + (result != null ? result.getIdeaCount() : 0);
+                List<String> left = pending(keywords, itemIds);
+                if (left.isEmpty() || attempt >= MAX_ATTEMPTS || researchService.isShutdown()
+                        || isCancellation(error)) {
+                    if (error != null && left.size() == keywords.size()) {
+                        return CompletableFuture.<ResearchResult>failedFuture(error);
+                    }
+                    return CompletableFuture.completedFuture(new ResearchResult(List.of(), ideas, left));
+                }
+                logger.info("Retrying {} failed keywords of durable research job {}", left.size(), jobId);
+                return attempt(jobId, keywords, itemIds, checkpoint, priority, attempt + 1, ideas);
+            })
+            .thenCompose(next -> next);
+    }
+
+    /**
+     * Whether a failure was caused by a cancellation, however deeply it is wrapped.
+     */
+    private static boolean isCancellation(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof CancellationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Leave an interrupted job's unfinished keywords pending and the job queued, so it resumes on the next start.
+     */
+    private void requeue(long jobId, int pendingCount) {
+        try {
+            jobDAO.requeueJob(jobId);
+            logger.info("Durable research job {} interrupted by shutdown; {} keywords left for the next start",
+                    jobId, pendingCount);
+        } catch (SQLException e) {
+            // Still resumed, as running jobs count as unfinished too
+            logger.error("Could not requeue durable research job {}", jobId, e);
+        }
+    }
+
+    private static List<String> pending(List<String> keywords, Map<String, Long> itemIds) {
+        List<String> pending = new ArrayList<>();
+        for (String keyword : keywords) {
+            if (itemIds.containsKey(ResearchCache.normalize(keyword))) {
+                pending.add(keyword);
+            }
+        }
+        return pending;
+    }
+
+    private void finish(long jobId) {
+        try {
+            boolean failed = jobDAO.countItems(jobId, "failed") > 0;
+            jobDAO.updateJobStatus(jobId, failed ? "failed" : "done");
+            logger.info("Durable research job {} {}", jobId, failed ? "finished with failures" : "done");
+        } catch (SQLException e) {
+            logger.error("Could not finish durable research job {}", jobId, e);
+        }
+    }
+}
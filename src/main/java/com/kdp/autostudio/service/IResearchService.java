@@ -4,6 +4,7 @@ import com.kdp.autostudio.model.Idea;
 
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * Service interface for managing research operations.
@@ -20,5 +21,21 @@ public interface IResearchService {
      * @return CompletableFuture that will contain the list of generated ideas when complete
      */
     CompletableFuture<List<Idea>> startResearch(List<String> keywords);
+
+    /**
+     * Start a research job and publish each idea to the subscriber as soon as it is
+     * scored and saved, instead of collecting the whole batch first.
+     * Implementations that cannot stream fall back to replaying the finished batch.
+     *
+     * @param keywords List of seed keywords to research
+     * @param subscriber Receives each idea as it becomes available
+     * @return CompletableFuture that will contain the number of ideas published when complete
+     */
+    default CompletableFuture<Integer> streamResearch(List<String> keywords, Consumer<Idea> subscriber) {
+        return startResearch(keywords).thenApply(ideas -> {
+            ideas.forEach(subscriber);
+            return ideas.size();
+        });
+    }
 }
 
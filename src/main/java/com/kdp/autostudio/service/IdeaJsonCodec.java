@@ -0,0 +1,124 @@
+package com.kdp.autostudio.service;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.kdp.autostudio.model.Idea;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming JSON codec for idea objects in the Python worker's format.
+ * Reads and writes fields straight off a {@link JsonReader}/{@link JsonWriter}
+ * so no intermediate JSON tree is built.
+ */
+public final class IdeaJsonCodec {
+
+    private IdeaJsonCodec() {
+    }
+
+    /**
+     * Decode one idea object. The reader must be positioned at the object's opening brace.
+     *
+     * @param reader Reader positioned at an idea object
+     * @return The decoded idea, with status defaulting to "pending"
+     * @throws IOException if the JSON is malformed
+     */
+    public static Idea decode(JsonReader reader) throws IOException {
+        Idea idea = new Idea();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "id" -> idea.setId(reader.nextInt());
+                case "keyword" -> idea.setKeyword(reader.nextString());
+                case "title" -> idea.setTitle(reader.nextString());
+                case "subtitle" -> idea.setSubtitle(reader.nextString());
+                case "demand" -> idea.setDemand(reader.nextDouble());
+                case "competition" -> idea.setCompetition(reader.nextDouble());
+                case "margin" -> idea.setMargin(reader.nextDouble());
+                case "effort" -> idea.setEffort(reader.nextDouble());
+                case "novelty" -> idea.setNovelty(reader.nextDouble());
+                case "score" -> idea.setScore(reader.nextDouble());
+                case "risk" -> idea.setRisk(reader.nextString());
+                case "profitability" -> idea.setProfitability(reader.nextString());
+                case "ai_explanation" -> idea.setAiExplanation(reader.nextString());
+                case "status" -> idea.setStatus(reader.nextString());
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (idea.getKeyword() == null) {
+            throw new IOException("Idea is missing required field 'keyword'");
+        }
+        return idea;
+    }
+
+    /**
+     * Encode an idea in the same format {@link #decode(JsonReader)} reads.
+     * The database ID is included when the idea has one.
+     *
+     * @param writer Writer to append the idea object to
+     * @param idea The idea to encode
+     * @throws IOException if writing fails
+     */
+    public static void encode(JsonWriter writer, Idea idea) throws IOException {
+        writer.beginObject();
+        if (idea.getId() != null) {
+            writer.name("id").value(idea.getId());
+        }
+        writer.name("keyword").value(idea.getKeyword());
+        writer.name("title").value(idea.getTitle());
+        writer.name("subtitle").value(idea.getSubtitle());
+        writer.name("demand").value(idea.getDemand());
+        writer.name("competition").value(idea.getCompetition());
+        writer.name("margin").value(idea.getMargin());
+        writer.name("effort").value(idea.getEffort());
+        writer.name("novelty").value(idea.getNovelty());
+        writer.name("score").value(idea.getScore());
+        writer.name("risk").value(idea.getRisk());
+        writer.name("profitability").value(idea.getProfitability());
+        writer.name("ai_explanation").value(idea.getAiExplanation());
+        writer.name("status").value(idea.getStatus());
+        writer.endObject();
+    }
+
+    /**
+     * Encode a list of ideas as a JSON array string.
+     */
+    public static String encodeList(List<Idea> ideas) throws IOException {
+        StringWriter out = new StringWriter();
+        try (JsonWriter writer = new JsonWriter(out)) {
+            writer.beginArray();
+            for (Idea idea : ideas) {
+                encode(writer, idea);
+            }
+            writer.endArray();
+        }
+        return out.toString();
+    }
+
+    /**
+     * Decode a JSON array string produced by {@link #encodeList(List)}.
+     */
+    public static List<Idea> decodeList(String json) throws IOException {
+        List<Idea> ideas = new ArrayList<>();
+        try (JsonReader reader = new JsonReader(new StringReader(json))) {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                ideas.add(decode(reader));
+            }
+            reader.endArray();
+        }
+        return ideas;
+    }
+}
@@ -0,0 +1,440 @@
+package com.kdp.autostudio.service;
+
+import com.kdp.autostudio.config.ScoringWeights;
+import com.kdp.autostudio.dao.CompetitorDAO;
+import com.kdp.autostudio.dao.IIdeaDAO;
+import com.kdp.autostudio.model.Competitor;
+import com.kdp.autostudio.model.Idea;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Staged ingestion of worker output: decode, score, then batched persistence.
+ * Decoding happens on the thread reading a worker's stdout; scoring and persistence
+ * each run on their own thread, connected by bounded queues. When the database falls
+ * behind, the queues fill up and the reading thread blocks, which stops reading the
+ * worker's pipe, so a bulk job is throttled instead of buffering ideas in memory.
+ * One pipeline is shared by all jobs of a service; each job feeds it through a {@link Batch}.
+ * Competitor listings scraped for a keyword are saved alongside each idea of that keyword.
+ * {@link #shutdown()} stops both stage threads and fails every batch still open.
+ */
+public class IngestionPipeline {
+    private static final Logger logger = LoggerFactory.getLogger(IngestionPipeline.class);
+
+    /**
+     * Point-in-time view of one stage.
+     *
+     * @param stage Stage name
+     * @param processed Items the stage has handled
+     * @param queueDepth Items waiting in the stage's input queue
+     * @param busyMillis Time spent working on items
+     * @param blockedMillis Time spent waiting for room in the next stage's queue
+     */
+    public record StageMetrics(String stage, long processed, int queueDepth, long busyMillis, long blockedMillis) {
+        /**
+         * Items handled per second of working time, i.e. the rate the stage could sustain on its own.
+         */
+        public double throughput() {
+            return busyMillis == 0 ? 0.0 : processed * 1000.0 / busyMillis;
+        }
+    }
+
+    /**
+     * Receives a job's output once it has been saved, in the order the worker emitted it.
+     */
+    @FunctionalInterface
+    public interface Sink {
+        void onIdea(String seedKeyword, Idea idea) throws IOException;
+
+        default void onKeywordDone(String seedKeyword, int ideaCount) throws IOException {
+        }
+    }
+
+    private enum Kind {
+        IDEA, KEYWORD_DONE, FLUSH
+    }
+
+    private record Item(Batch batch, Kind kind, String seed, Idea idea, int count) {
+    }
+
+    private static class Stage {
+        private final String name;
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong busyNanos = new AtomicLong();
+        private final AtomicLong blockedNanos = new AtomicLong();
+
+        Stage(String name) {
+            this.name = name;
+        }
+
+        StageMetrics metrics(BlockingQueue<Item> input) {
+            return new StageMetrics(name, processed.get(), input == null ? 0 : input.size(),
+                    busyNanos.get() / 1_000_000, blockedNanos.get() / 1_000_000);
+        }
+    }
+
+    private final IIdeaDAO ideaDAO;
+    private final CompetitorDAO competitorDAO;
+    private final int batchSize;
+    private final BlockingQueue<Item> scoreQueue;
+    private final BlockingQueue<Item> persistQueue;
+    private final Stage decodeStage = new Stage("decode");
+    private final Stage scoreStage = new Stage("score");
+    private final Stage persistStage = new Stage("persist");
+    private final Set<Batch> openBatches = ConcurrentHashMap.newKeySet();
+    private final List<Future<?>> stageThreads;
+    private volatile boolean stopped;
+
+    /**
+     * Create a pipeline that saves ideas only, discarding competitor listings.
+     */
+    public IngestionPipeline(IIdeaDAO ideaDAO, int queueCapacity, int batchSize, ExecutorService executor) {
+        this(ideaDAO, null, queueCapacity, batchSize, executor);
+    }
+
+    /**
+     * @param ideaDAO DAO the persistence stage writes to
+     * @param competitorDAO DAO competitor listings are saved to, or null to discard them
+     * @param queueCapacity Capacity of each queue between stages
+     * @param batchSize Maximum number of ideas persisted at once
+     * @param executor Executor that runs the score and persist stages for the lifetime of the pipeline
+     */
+    public IngestionPipeline(IIdeaDAO ideaDAO, CompetitorDAO competitorDAO, int queueCapacity, int batchSize,
+                             ExecutorService executor) {
+        this.ideaDAO = ideaDAO;
+        this.competitorDAO = competitorDAO;
+        this.batchSize = Math.max(1, batchSize);
+        this.scoreQueue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.persistQueue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.stageThreads = List.of(executor.submit(this::runScoreStage), executor.submit(this::runPersistStage));
+    }
+
+    /**
+     * Open a batch for one job.
+     *
+     * @param weights Weights used to score the job's ideas
+     * @param sink Receives the job's ideas once they are saved
+     */
+    public Batch open(ScoringWeights weights, Sink sink) {
+        Batch batch = new Batch(weights, sink);
+        openBatches.add(batch);
+        if (stopped) {
+            batch.abort(new IOException("Ingestion pipeline is shut down"));
+        }
+        return batch;
+    }
+
+    /**
+     * Stop the score and persist stages. Batches still open fail, so no job stays
+     * blocked in {@link Batch#finish()}; ideas not yet saved are dropped.
+     */
+    public void shutdown() {
+        stopped = true;
+        stageThreads.forEach(thread -> thread.cancel(true));
+        // Unblocks jobs waiting for room in the queues
+        scoreQueue.clear();
+        persistQueue.clear();
+        IOException cause = new IOException("Ingestion pipeline shut down");
+        for (Batch batch : List.copyOf(openBatches)) {
+            batch.abort(cause);
+        }
+        logger.info("Ingestion pipeline shut down");
+    }
+
+    /**
+     * Metrics of the decode, score and persist stages, in pipeline order.
+     */
+    public List<StageMetrics> getMetrics() {
+        return List.of(decodeStage.metrics(null), scoreStage.metrics(scoreQueue),
+                       persistStage.metrics(persistQueue));
+    }
+
+    private void runScoreStage() {
+        try {
+            while (true) {
+                Item item = scoreQueue.take();
+                long start = System.nanoTime();
+                if (item.kind() == Kind.IDEA && item.batch().failure == null) {
+                    try {
+                        item.idea().calculateScore(item.batch().weights);
+                    } catch (RuntimeException e) {
+                        item.batch().fail(e);
+                    }
+                    scoreStage.processed.incrementAndGet();
+                }
+                long scored = System.nanoTime();
+                scoreStage.busyNanos.addAndGet(scored - start);
+                persistQueue.put(item);
+                scoreStage.blockedNanos.addAndGet(System.nanoTime() - scored);
+            }
+        } catch (InterruptedException e) {
+            logger.debug("Ingestion score stage stopped");
+        }
+    }
+
+    private void runPersistStage() {
+        List<Item> drained = new ArrayList<>(batchSize);
+        try {
+            while (true) {
+                drained.add(persistQueue.take());
+                persistQueue.drainTo(drained, batchSize - 1);
+                long start = System.nanoTime();
+                try {
+                    persist(drained);
+                } catch (Throwable e) {
+                    // Fail the drained jobs rather than the stage, which every other job depends on
+                    logger.error("Persisting {} ingested items failed", drained.size(), e);
+                    failAll(drained, e);
+                }
+                persistStage.busyNanos.addAndGet(System.nanoTime() - start);
+                drained.clear();
+            }
+        } catch (InterruptedException e) {
+            logger.debug("Ingestion persist stage stopped");
+        }
+    }
+
+    private void persist(List<Item> items) {
+        // Save every idea of the drained batch in one transaction
+        Map<Batch, List<Idea>> ideasByBatch = new LinkedHashMap<>();
+        for (Item item : items) {
+            if (item.kind() == Kind.IDEA && item.batch().failure == null) {
+                ideasByBatch.computeIfAbsent(item.batch(), batch -> new ArrayList<>()).add(item.idea());
+            }
+        }
+        if (!ideasByBatch.isEmpty()) {
+            List<Idea> ideas = new ArrayList<>();
+            ideasByBatch.values().forEach(ideas::addAll);
+            try {
+                ideaDAO.insertAll(ideas);
+            } catch (SQLException e) {
+                // Retry job by job so one bad job does not fail the others sharing the transaction
+                logger.warn("Batch insert of {} ideas failed; retrying per job", ideas.size(), e);
+                ideasByBatch.forEach((batch, batchIdeas) -> {
+                    try {
+                        ideaDAO.insertAll(batchIdeas);
+                    } catch (SQLException retryError) {
+                        batch.fail(new IOException("Failed to save ideas", retryError));
+                    }
+                });
+            }
+        }
+
+        persistCompetitors(items);
+
+        // Hand saved ideas and keyword checkpoints to each job in the order they arrived
+        for (Item item : items) {
+            Batch batch = item.batch();
+            if (item.kind() == Kind.FLUSH) {
+                batch.complete();
+                continue;
+            }
+            if (batch.failure != null) {
+                continue;
+            }
+            try {
+                if (item.kind() == Kind.IDEA) {
+                    persistStage.processed.incrementAndGet();
+                    batch.persisted.incrementAndGet();
+                    batch.sink.onIdea(item.seed(), item.idea());
+                } else {
+                    batch.competitorsBySeed.remove(item.seed());
+                    batch.sink.onKeywordDone(item.seed(), item.count());
+                }
+            } catch (IOException | RuntimeException e) {
+                batch.fail(e);
+            }
+        }
+    }
+
+    /**
+     * Fail every job with an item among the given ones, completing those whose flush marker is among them.
+     */
+    private static void failAll(List<Item> items, Throwable cause) {
+        for (Item item : items) {
+            item.batch().fail(cause);
+        }
+        for (Item item : items) {
+            if (item.kind() == Kind.FLUSH) {
+                item.batch().complete();
+            }
+        }
+    }
+
+    /**
+     * Save the listings of each saved idea's seed keyword and link them to that idea;
+     * a listing shared by several ideas is stored once.
+     * Listings are supplementary, so failing to save them does not fail the job.
+     */
+    private void persistCompetitors(List<Item> items) {
+        if (competitorDAO == null) {
+            return;
+        }
+        List<Competitor> rows = new ArrayList<>();
+        for (Item item : items) {
+            if (item.kind() != Kind.IDEA || item.batch().failure != null || item.idea().getId() == null) {
+                continue;
+            }
+            List<Competitor> listings = item.batch().competitorsBySeed.get(item.seed());
+            if (listings != null) {
+                for (Competitor listing : listings) {
+                    rows.add(listing.forIdea(item.idea().getId()));
+                }
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            competitorDAO.upsertAll(rows);
+        } catch (SQLException e) {
+            logger.warn("Could not save {} competitor listings", rows.size(), e);
+        }
+    }
+
+    /**
+     * The part of the pipeline belonging to one job. It is the listener handed to
+     * {@link PythonWorker#call}; {@link #finish()} waits until everything it received
+     * has been saved. If saving fails, the batch stops accepting ideas and the next
+     * call into it throws, which aborts the worker call.
+     */
+    public class Batch implements PythonWorker.WorkerListener, AutoCloseable {
+        private final ScoringWeights weights;
+        private final Sink sink;
+        private final AtomicInteger persisted = new AtomicInteger();
+        private final Map<String, List<Competitor>> competitorsBySeed = new ConcurrentHashMap<>();
+        private final CompletableFuture<Integer> done = new CompletableFuture<>();
+        private volatile Throwable failure;
+        private boolean flushed;
+
+        private Batch(ScoringWeights weights, Sink sink) {
+            this.weights = weights;
+            this.sink = sink;
+        }
+
+        @Override
+        public void onIdea(String seedKeyword, Idea idea) throws IOException {
+            decodeStage.processed.incrementAndGet();
+            enqueue(new Item(this, Kind.IDEA, seedKeyword, idea, 0));
+        }
+
+        @Override
+        public void onCompetitors(String seedKeyword, List<Competitor> competitors) throws IOException {
+            throwIfFailed();
+            if (competitorDAO != null && !competitors.isEmpty()) {
+                competitorsBySeed.put(seedKeyword, competitors);
+            }
+        }
+
+        @Override
+        public void onKeywordDone(String seedKeyword, int ideaCount) throws IOException {
+            enqueue(new Item(this, Kind.KEYWORD_DONE, seedKeyword, null, ideaCount));
+        }
+
+        private void enqueue(Item item) throws IOException {
+            throwIfFailed();
+            long start = System.nanoTime();
+            try {
+                scoreQueue.put(item);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while queueing worker output", e);
+            } finally {
+                decodeStage.blockedNanos.addAndGet(System.nanoTime() - start);
+            }
+        }
+
+        /**
+         * Wait until everything received so far has been saved and delivered to the sink.
+         *
+         * @return Number of ideas saved by this batch
+         * @throws IOException if an idea could not be saved or the sink failed
+         */
+        public int finish() throws IOException, InterruptedException {
+            flush();
+            try {
+                return done.get();
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+            }
+        }
+
+        /**
+         * Flush the batch if {@link #finish()} was not called, e.g. because the worker
+         * call failed, so ideas the worker already emitted are still saved.
+         */
+        @Override
+        public void close() {
+            try {
+                flush();
+                done.handle((count, e) -> null).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                logger.debug("Ingestion batch closed after failure", e);
+            }
+        }
+
+        public int getPersistedCount() {
+            return persisted.get();
+        }
+
+        private synchronized void flush() throws InterruptedException {
+            if (flushed || stopped) {
+                return;
+            }
+            flushed = true;
+            // Flush markers are queued even after a failure so the batch always completes
+            long start = System.nanoTime();
+            scoreQueue.put(new Item(this, Kind.FLUSH, null, null, 0));
+            decodeStage.blockedNanos.addAndGet(System.nanoTime() - start);
+        }
+
+        private void throwIfFailed() throws IOException {
+            Throwable cause = failure;
+            if (cause != null) {
+                throw cause instanceof IOException io ? io : new IOException(cause);
+            }
+        }
+
+        private void fail(Throwable cause) {
+            if (failure == null) {
+                failure = cause;
+            }
+        }
+
+        private void complete() {
+            openBatches.remove(this);
+            if (failure != null) {
+                done.completeExceptionally(failure);
+            } else {
+                done.complete(persisted.get());
+            }
+        }
+
+        /**
+         * Fail and complete the batch without waiting for its flush marker.
+         */
+        private void abort(Throwable cause) {
+            fail(cause);
+            complete();
+        }
+    }
+}
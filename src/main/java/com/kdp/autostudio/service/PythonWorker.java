@@ -0,0 +1,249 @@
+package com.kdp.autostudio.service;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.kdp.autostudio.model.Competitor;
+import com.kdp.autostudio.model.Idea;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A single long-lived Python worker process started with {@code --serve}.
+ * Jobs are exchanged as one JSON object per line on stdin/stdout; the
+ * worker's own log output arrives on stderr and is forwarded to the logger.
+ */
+public class PythonWorker implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(PythonWorker.class);
+
+    private final int workerId;
+    private final Process process;
+    private final BufferedWriter stdin;
+    private final BufferedReader stdout;
+    private final Gson gson;
+    private String version;
+    private int jobsCompleted;
+
+    private PythonWorker(int workerId, Process process) {
+        this.workerId = workerId;
+        this.process = process;
+        this.stdin = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+        this.stdout = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        this.gson = new Gson();
+    }
+
+    /**
+     * Start a worker process and wait for its ready handshake.
+     *
+     * @param workerId Identifier used in log output
+     * @param command The command line that launches the worker in serve mode
+     * @param startupTimeout How long to wait for the handshake before killing the process
+     * @return The started worker
+     * @throws IOException if the process cannot be started or does not become ready in time
+     */
+    public static PythonWorker start(int workerId, List<String> command, Duration startupTimeout)
+            throws IOException {
+        Process process = new ProcessBuilder(command).start();
+        PythonWorker worker = new PythonWorker(workerId, process);
+        worker.drainStderr();
+
+        // Whichever of the handshake and the deadline comes first settles the startup
+        AtomicBoolean settled = new AtomicBoolean();
+        Thread deadline = Thread.ofVirtual().name("python-worker-" + workerId + "-startup").start(() -> {
+            try {
+                Thread.sleep(startupTimeout);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (settled.compareAndSet(false, true)) {
+                logger.warn("Python worker {} did not report ready within {}", workerId, startupTimeout);
+                // Closes the worker's stdout, which ends the read below
+                worker.kill();
+            }
+        });
+
+        WorkerMessage ready;
+        try {
+            ready = worker.readMessage();
+        } finally {
+            deadline.interrupt();
+        }
+        if (!settled.compareAndSet(false, true)) {
+            worker.kill();
+            throw new IOException("Python worker " + workerId + " did not report ready within " + startupTimeout);
+        }
+        if (ready == null || !"ready".equals(ready.getType())) {
+            worker.close();
+            throw new IOException("Python worker " + workerId + " did not report ready");
+        }
+        worker.version = ready.getVersion() != null ? ready.getVersion() : "unknown";
+        logger.info("Python worker {} ready (version {}, pid {})", workerId, worker.version, process.pid());
+        return worker;
+    }
+
+    /**
+     * Send a job request and block until the worker finishes it.
+     * Ideas are decoded and handed to the listener one at a time as the worker
+     * emits them, so nothing is buffered beyond the current line.
+     *
+     * @param request The job request; must carry an "id" property
+     * @param listener Receives each idea as soon as it arrives
+     * @return The "done" message for the request
+     * @throws IOException if the worker dies, breaks the protocol or reports an error
+     */
+    public WorkerMessage call(JsonObject request, WorkerListener listener) throws IOException {
+        String jobId = request.get("id").getAsString();
+        stdin.write(gson.toJson(request));
+        stdin.newLine();
+        stdin.flush();
+
+        while (true) {
+            WorkerMessage message = readMessage();
+            if (message == null) {
+                throw new IOException("Python worker " + workerId + " exited during job " + jobId);
+            }
+            if (!jobId.equals(message.getJobId())) {
+                logger.warn("Python worker {} sent {} message for unexpected job {}",
+                        workerId, message.getType(), message.getJobId());
+                continue;
+            }
+            switch (message.getType()) {
+                case "idea" -> listener.onIdea(message.getSeed(), message.getIdea());
+                case "phase" -> listener.onPhase(message);
+                case "competitors" -> listener.onCompetitors(message.getSeed(), message.getListings());
+                case "keyword_done" -> listener.onKeywordDone(message.getSeed(), message.getCount());
+                case "error" -> {
+                    jobsCompleted++;
+                    throw new WorkerJobException("Job " + jobId + " failed: " + message.getMessage());
+                }
+                case "done" -> {
+                    jobsCompleted++;
+                    return message;
+                }
+                default -> logger.debug("Ignoring {} message from Python worker {}", message.getType(), workerId);
+            }
+        }
+    }
+
+    private WorkerMessage readMessage() throws IOException {
+        String line;
+        while ((line = stdout.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            try {
+                return WorkerMessage.decode(line);
+            } catch (IOException e) {
+                logger.warn("Python worker {} wrote non-protocol output: {}", workerId, line);
+            }
+        }
+        return null;
+    }
+
+    private void drainStderr() {
+        Thread.ofVirtual().name("python-worker-" + workerId + "-stderr").start(() -> {
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(process.getErrorStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    logger.info("Python worker {}: {}", workerId, line);
+                }
+            } catch (IOException e) {
+                logger.debug("Stopped reading stderr of Python worker {}", workerId);
+            }
+        });
+    }
+
+    public int getWorkerId() {
+        return workerId;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public int getJobsCompleted() {
+        return jobsCompleted;
+    }
+
+    public boolean isAlive() {
+        return process.isAlive();
+    }
+
+    /**
+     * Kill the worker and every process it started, such as Playwright's browser.
+     * Descendants are collected before the worker dies so they are not orphaned.
+     */
+    public void kill() {
+        logger.info("Killing Python worker {} (pid {}) and its descendants", workerId, process.pid());
+        process.descendants().forEach(ProcessHandle::destroyForcibly);
+        process.destroyForcibly();
+    }
+
+    /**
+     * Ask the worker to exit, and kill it if it does not do so promptly.
+     */
+    @Override
+    public void close() {
+        try {
+            if (process.isAlive()) {
+                stdin.write("{\"type\":\"shutdown\"}");
+                stdin.newLine();
+                stdin.flush();
+                stdin.close();
+            }
+        } catch (IOException e) {
+            logger.debug("Could not send shutdown to Python worker {}", workerId);
+        }
+
+        try {
+            if (!process.waitFor(5, TimeUnit.SECONDS)) {
+                kill();
+            }
+        } catch (InterruptedException e) {
+            kill();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Receives streamed output of a running job on the thread reading the worker's stdout.
+     */
+    @FunctionalInterface
+    public interface WorkerListener {
+        void onIdea(String seedKeyword, Idea idea) throws IOException;
+
+        default void onKeywordDone(String seedKeyword, int ideaCount) throws IOException {
+        }
+
+        /**
+         * Called when a phase of a keyword starts or ends.
+         */
+        default void onPhase(WorkerMessage phase) throws IOException {
+        }
+
+        /**
+         * Called with the listings scraped for a seed keyword, before that keyword's ideas.
+         */
+        default void onCompetitors(String seedKeyword, List<Competitor> competitors) throws IOException {
+        }
+    }
+
+    /**
+     * Raised when the worker reports that a job failed but is itself still healthy.
+     */
+    public static class WorkerJobException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        public WorkerJobException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package com.kdp.autostudio.service;
+
+import com.kdp.autostudio.config.AppConfig;
+import com.kdp.autostudio.config.ConfigManager;
+import com.kdp.autostudio.util.AppExecutors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Pool of warm Python worker processes.
+ * Workers are started once and reused across research jobs, so interpreter
+ * startup and the Playwright/OpenAI imports are paid per worker rather than per job.
+ * Crashed workers are replaced and each worker is recycled after a configured
+ * number of jobs to bound the impact of leaks in the Python side. Replacements
+ * start in the background, so the thread releasing a worker is not held up.
+ */
+public class PythonWorkerPool implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(PythonWorkerPool.class);
+    private static final String PYTHON_EXECUTABLE = "python3"; // or "python" on Windows
+    private static final Pattern DECLARED_VERSION = Pattern.compile(
+            "^WORKER_VERSION\\s*=\\s*[\"']([^\"']+)[\"']", Pattern.MULTILINE);
+    private static PythonWorkerPool instance;
+
+    private final ConfigManager configManager;
+    private final int size;
+    private final int maxJobsPerWorker;
+    private final Duration startupTimeout;
+    private final ExecutorService executor;
+    private final BlockingQueue<PythonWorker> idleWorkers;
+    private final AtomicInteger liveWorkers = new AtomicInteger();
+    private final AtomicInteger workerIds = new AtomicInteger(1);
+    private final AtomicInteger restarts = new AtomicInteger();
+    private final AtomicInteger recycles = new AtomicInteger();
+    private volatile String workerVersion;
+    private volatile boolean closed;
+
+    /**
+     * Task executed against a borrowed worker.
+     */
+    @FunctionalInterface
+    public interface WorkerTask<T> {
+        T run(PythonWorker worker) throws IOException;
+    }
+
+    /**
+     * Create a pool sized from the application configuration.
+     */
+    public PythonWorkerPool() {
+        this(ConfigManager.getInstance().getConfig().getWorkerPoolSize(),
+             ConfigManager.getInstance().getConfig().getWorkerMaxJobs());
+    }
+
+    /**
+     * Create a pool with explicit sizing.
+     *
+     * @param size Maximum number of worker processes
+     * @param maxJobsPerWorker Number of jobs after which a worker is replaced
+     */
+    public PythonWorkerPool(int size, int maxJobsPerWorker) {
+        this(size, maxJobsPerWorker,
+             Duration.ofSeconds(ConfigManager.getInstance().getConfig().getWorkerStartupTimeoutSeconds()),
+             AppExecutors.getInstance().io());
+    }
+
+    /**
+     * Create a pool with explicit sizing, startup deadline and executor.
+     *
+     * @param size Maximum number of worker processes
+     * @param maxJobsPerWorker Number of jobs after which a worker is replaced
+     * @param startupTimeout How long a new worker may take to report ready before it is killed
+     * @param executor Executor that starts replacement workers
+     */
+    public PythonWorkerPool(int size, int maxJobsPerWorker, Duration startupTimeout, ExecutorService executor) {
+        this.configManager = ConfigManager.getInstance();
+        this.size = Math.max(1, size);
+        this.maxJobsPerWorker = Math.max(1, maxJobsPerWorker);
+        this.startupTimeout = startupTimeout;
+        this.executor = executor;
+        this.idleWorkers = new LinkedBlockingQueue<>();
+    }
+
+    public static synchronized PythonWorkerPool getInstance() {
+        if (instance == null) {
+            instance = new PythonWorkerPool();
+        }
+        return instance;
+    }
+
+    /**
+     * Close the shared pool if it was ever created.
+     */
+    public static synchronized void shutdownInstance() {
+        if (instance != null) {
+            instance.close();
+            instance = null;
+        }
+    }
+
+    /**
+     * Start all workers up front so the first job does not pay startup cost.
+     */
+    public void prestart() {
+        while (liveWorkers.get() < size) {
+            if (liveWorkers.incrementAndGet() > size) {
+                liveWorkers.decrementAndGet();
+                break;
+            }
+            try {
+                idleWorkers.offer(spawn());
+            } catch (IOException e) {
+                liveWorkers.decrementAndGet();
+                logger.error("Failed to prestart Python worker", e);
+                break;
+            }
+        }
+    }
+
+    /**
+     * Run a task on a pooled worker, blocking until one is available.
+     *
+     * @param task The task to run
+     * @return The task result
+     * @throws IOException if the task or the worker fails
+     * @throws InterruptedException if interrupted while waiting for a worker
+     */
+    public <T> T execute(WorkerTask<T> task) throws IOException, InterruptedException {
+        PythonWorker worker = acquire();
+        boolean healthy = false;
+        try {
+            T result = task.run(worker);
+            healthy = true;
+            return result;
+        } catch (PythonWorker.WorkerJobException e) {
+            // The job failed but the worker answered cleanly, so it can be reused
+            healthy = true;
+            throw e;
+        } finally {
+            release(worker, healthy);
+        }
+    }
+
+    private PythonWorker acquire() throws IOException, InterruptedException {
+        if (closed) {
+            throw new IllegalStateException("Python worker pool is closed");
+        }
+
+        while (true) {
+            PythonWorker worker = idleWorkers.poll();
+            if (worker != null) {
+                return worker;
+            }
+
+            if (liveWorkers.incrementAndGet() <= size) {
+                try {
+                    return spawn();
+                } catch (IOException e) {
+                    liveWorkers.decrementAndGet();
+                    throw e;
+                }
+            }
+            liveWorkers.decrementAndGet();
+
+            // Wake up periodically in case a slot was freed by a failed restart
+            worker = idleWorkers.poll(1, TimeUnit.SECONDS);
+            if (worker != null) {
+                return worker;
+            }
+            if (closed) {
+                throw new IllegalStateException("Python worker pool is closed");
+            }
+        }
+    }
+
+    private void release(PythonWorker worker, boolean healthy) {
+        if (closed) {
+            worker.close();
+            liveWorkers.decrementAndGet();
+            return;
+        }
+
+        if (!healthy || !worker.isAlive()) {
+            logger.warn("Python worker {} crashed, restarting", worker.getWorkerId());
+            restarts.incrementAndGet();
+            worker.close();
+            replace();
+        } else if (worker.getJobsCompleted() >= maxJobsPerWorker) {
+            logger.info("Recycling Python worker {} after {} jobs", worker.getWorkerId(), worker.getJobsCompleted());
+            recycles.incrementAndGet();
+            worker.close();
+            replace();
+        } else {
+            idleWorkers.offer(worker);
+        }
+    }
+
+    private void replace() {
+        try {
+            executor.execute(() -> {
+                try {
+                    PythonWorker worker = spawn();
+                    if (closed) {
+                        worker.close();
+                        liveWorkers.decrementAndGet();
+                    } else {
+                        idleWorkers.offer(worker);
+                    }
+                } catch (IOException e) {
+                    // Leave the slot free; the next acquire will try to start a worker again
+                    liveWorkers.decrementAndGet();
+                    logger.error("Failed to start replacement Python worker", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            liveWorkers.decrementAndGet();
+            logger.warn("Not replacing Python worker; the executor is shut down");
+        }
+    }
+
+    private PythonWorker spawn() throws IOException {
+        PythonWorker worker = PythonWorker.start(workerIds.getAndIncrement(), buildCommand(), startupTimeout);
+        workerVersion = worker.getVersion();
+        return worker;
+    }
+
+    private List<String> buildCommand() {
+        AppConfig config = configManager.getConfig();
+        List<String> command = new ArrayList<>();
+        command.add(PYTHON_EXECUTABLE);
+        command.add(config.getPythonWorkerPath());
+        command.add("--serve");
+        command.add("--model");
+        command.add(config.getOpenAIModel());
+        String apiKey = configManager.getOpenAIApiKey();
+        if (apiKey != null && !apiKey.isEmpty()) {
+            command.add("--openai-key");
+            command.add(apiKey);
+        }
+        return command;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getLiveWorkers() {
+        return liveWorkers.get();
+    }
+
+    public int getIdleWorkers() {
+        return idleWorkers.size();
+    }
+
+    public int getRestarts() {
+        return restarts.get();
+    }
+
+    public int getRecycles() {
+        return recycles.get();
+    }
+
+    /**
+     * Version reported by the most recently started worker, or null if none has started yet.
+     */
+    public String getWorkerVersion() {
+        return workerVersion;
+    }
+
+    /**
+     * Version reported by the workers, starting one if none has started yet.
+     *
+     * @throws IOException if no worker can be started
+     * @throws InterruptedException if interrupted while waiting for a worker
+     */
+    public String ensureWorkerVersion() throws IOException, InterruptedException {
+        if (workerVersion == null) {
+            execute(PythonWorker::getVersion);
+        }
+        return workerVersion;
+    }
+
+    /**
+     * Version of the workers, found without starting one if possible: the version reported
+     * by a running worker, or else the version declared in the worker script. Only if the
+     * script declares none is a worker started to ask it.
+     *
+     * @throws IOException if a worker has to be started and cannot be
+     * @throws InterruptedException if interrupted while waiting for a worker
+     */
+    public String resolveWorkerVersion() throws IOException, InterruptedException {
+        if (workerVersion != null) {
+            return workerVersion;
+        }
+        String declared = readDeclaredVersion();
+        return declared != null ? declared : ensureWorkerVersion();
+    }
+
+    private String readDeclaredVersion() {
+        String script = configManager.getConfig().getPythonWorkerPath();
+        if (script == null) {
+            return null;
+        }
+        try {
+            Matcher matcher = DECLARED_VERSION.matcher(Files.readString(Paths.get(script)));
+            return matcher.find() ? matcher.group(1) : null;
+        } catch (IOException e) {
+            logger.debug("Could not read the worker version from {}", script, e);
+            return null;
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        PythonWorker worker;
+        while ((worker = idleWorkers.poll()) != null) {
+            worker.close();
+            liveWorkers.decrementAndGet();
+        }
+        logger.info("Python worker pool closed");
+    }
+}
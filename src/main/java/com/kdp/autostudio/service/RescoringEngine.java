@@ -0,0 +1,165 @@
+package com.kdp.autostudio.service;
+
+import com.kdp.autostudio.config.ScoringWeights;
+import com.kdp.autostudio.dao.ColumnarIdeaDAO;
+import com.kdp.autostudio.dao.IdeaColumnStore;
+import com.kdp.autostudio.model.Idea;
+import com.kdp.autostudio.util.AppExecutors;
+import com.kdp.autostudio.util.CancellableFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Recomputes the saved score of every idea, e.g. after the scoring weights were changed.
+ * Scores are computed in parallel over the columns of an {@link IdeaColumnStore}, and only
+ * ideas whose score actually changes are written back, a batch per transaction so other
+ * writers are never blocked for long. Cancelling stops between batches; ideas already
+ * written keep their new score, and running again finishes the rest.
+ */
+public class RescoringEngine {
+    private static final Logger logger = LoggerFactory.getLogger(RescoringEngine.class);
+    private static final int SCORE_CHUNK_ROWS = 64 * 1024;
+    private static final int WRITE_BATCH_ROWS = 10_000;
+
+    /**
+     * How far a run has got.
+     *
+     * @param total Number of ideas
+     * @param scored Ideas whose score has been recomputed
+     * @param changed Ideas whose score changed, known once every idea is scored
+     * @param written Changed scores saved so far
+     */
+    public record Progress(int total, int scored, int changed, int written) {
+    }
+
+    /**
+     * Outcome of a completed run.
+     */
+    public record Result(int total, int changed, int written, long elapsedMillis) {
+    }
+
+    private final ColumnarIdeaDAO ideaDAO;
+    private final AppExecutors executors;
+
+    public RescoringEngine(ColumnarIdeaDAO ideaDAO) {
+        this(ideaDAO, AppExecutors.getInstance());
+    }
+
+    public RescoringEngine(ColumnarIdeaDAO ideaDAO, AppExecutors executors) {
+        this.ideaDAO = ideaDAO;
+        this.executors = executors;
+    }
+
+    /**
+     * Start rescoring every idea with the given weights.
+     *
+     * @param weights Weights to score with; they are read once, at the start
+     * @param onProgress Called from background threads as the run advances
+     * @return Future of the run; cancelling it stops the run at the next batch
+     */
+    public CancellableFuture<Result> rescore(ScoringWeights weights, Consumer<Progress> onProgress) {
+        double[] w = {weights.getDemand(), weights.getCompetition(), weights.getMargin(),
+                      weights.getEffort(), weights.getNovelty()};
+        AtomicBoolean cancelled = new AtomicBoolean();
+        CancellableFuture<Result> future = new CancellableFuture<>(() -> cancelled.set(true));
+        executors.io().execute(() -> {
+            try {
+                future.complete(run(w, onProgress, cancelled));
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    private Result run(double[] w, Consumer<Progress> onProgress, AtomicBoolean cancelled) throws SQLException {
+        long start = System.nanoTime();
+        IdeaColumnStore.Snapshot rows = ideaDAO.getStore().snapshot();
+        int total = rows.size();
+        double[] rescored = new double[total];
+
+        // Each chunk writes its own range of the output, so chunks need no coordination
+        AtomicInteger scored = new AtomicInteger();
+        List<CompletableFuture<Void>> chunks = new ArrayList<>();
+        for (int from = 0; from < total; from += SCORE_CHUNK_ROWS) {
+            int chunkStart = from;
+            int chunkEnd = Math.min(total, from + SCORE_CHUNK_ROWS);
+            chunks.add(CompletableFuture.runAsync(() -> {
+                if (cancelled.get()) {
+                    return;
+                }
+                score(rows, w, rescored, chunkStart, chunkEnd);
+                onProgress.accept(new Progress(total, scored.addAndGet(chunkEnd - chunkStart), 0, 0));
+            }, executors.cpu()));
+        }
+        CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new)).join();
+        checkCancelled(cancelled);
+
+        // Unchanged inputs give a bit-identical score, so they are never written
+        int[] changedIds = new int[total];
+        double[] changedScores = new double[total];
+        int changed = 0;
+        double[] current = rows.score();
+        for (int i = 0; i < total; i++) {
+            if (Double.compare(rescored[i], current[i]) != 0) {
+                changedIds[changed] = rows.ids()[i];
+                changedScores[changed++] = rescored[i];
+            }
+        }
+        onProgress.accept(new Progress(total, total, changed, 0));
+
+        int written = 0;
+        for (int from = 0; from < changed; from += WRITE_BATCH_ROWS) {
+            checkCancelled(cancelled);
+            int to = Math.min(changed, from + WRITE_BATCH_ROWS);
+            written += ideaDAO.updateScores(Arrays.copyOfRange(changedIds, from, to),
+                                            Arrays.copyOfRange(changedScores, from, to));
+            onProgress.accept(new Progress(total, total, changed, written));
+        }
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        logger.info("Rescored {} ideas in {} ms, {} changed", total, elapsedMillis, changed);
+        return new Result(total, changed, written, elapsedMillis);
+    }
+
+    /**
+     * The formula of {@link Idea#calculateScore}, term for term in the same order so an idea
+     * whose inputs and weights are unchanged gets exactly the score it already has.
+     * A plain indexed loop over primitive arrays, which the JIT compiles to SIMD code.
+     */
+    private static void score(IdeaColumnStore.Snapshot rows, double[] w, double[] out, int from, int to) {
+        double[] demand = rows.demand();
+        double[] competition = rows.competition();
+        double[] margin = rows.margin();
+        double[] effort = rows.effort();
+        double[] novelty = rows.novelty();
+        double wDemand = w[0];
+        double wCompetition = w[1];
+        double wMargin = w[2];
+        double wEffort = w[3];
+        double wNovelty = w[4];
+        for (int i = from; i < to; i++) {
+            out[i] = wDemand * demand[i] +
+                     wCompetition * (1 - competition[i]) +
+                     wMargin * margin[i] +
+                     wEffort * (1 - effort[i]) +
+                     wNovelty * novelty[i];
+        }
+    }
+
+    private static void checkCancelled(AtomicBoolean cancelled) {
+        if (cancelled.get()) {
+            throw new CancellationException("Rescoring cancelled");
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.kdp.autostudio.service;
+
+import com.kdp.autostudio.config.ConfigManager;
+import com.kdp.autostudio.dao.ResearchCacheDAO;
+import com.kdp.autostudio.model.Idea;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Persistent cache of research results in front of the Python worker.
+ * Entries are keyed by normalized keyword, OpenAI model and worker version,
+ * expire after a TTL and are evicted least-recently-used beyond a size limit.
+ * Storage errors are logged and treated as misses so the cache can never fail a job.
+ */
+public class ResearchCache {
+    private static final Logger logger = LoggerFactory.getLogger(ResearchCache.class);
+
+    private final ResearchCacheDAO cacheDAO;
+    private final Duration ttl;
+    private final int maxEntries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Create a cache with TTL and capacity taken from the application configuration.
+     */
+    public ResearchCache() {
+        this(new ResearchCacheDAO(),
+             Duration.ofHours(ConfigManager.getInstance().getConfig().getResearchCacheTtlHours()),
+             ConfigManager.getInstance().getConfig().getResearchCacheMaxEntries());
+    }
+
+    public ResearchCache(ResearchCacheDAO cacheDAO, Duration ttl, int maxEntries) {
+        this.cacheDAO = cacheDAO;
+        this.ttl = ttl;
+        this.maxEntries = Math.max(1, maxEntries);
+    }
+
+    /**
+     * Normalize a keyword for use as a cache key: trimmed, lower-cased, single-spaced.
+     */
+    public static String normalize(String keyword) {
+        return keyword.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Look up cached ideas for a keyword.
+     *
+     * @return The cached ideas, or null on a miss or expired entry
+     */
+    public List<Idea> get(String keyword, String model, String workerVersion) {
+        String key = normalize(keyword);
+        try {
+            ResearchCacheDAO.CachedResearch cached = cacheDAO.find(key, model, workerVersion);
+            if (cached == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+            if (cached.createdAt().plus(ttl).isBefore(LocalDateTime.now())) {
+                cacheDAO.delete(key, model, workerVersion);
+                expirations.incrementAndGet();
+                misses.incrementAndGet();
+                return null;
+            }
+            cacheDAO.touch(key, model, workerVersion);
+            hits.incrementAndGet();
+            return IdeaJsonCodec.decodeList(cached.ideasJson());
+        } catch (SQLException | IOException e) {
+            logger.warn("Research cache lookup failed for '{}'", key, e);
+            misses.incrementAndGet();
+            return null;
+        }
+    }
+
+    /**
+     * Store the ideas produced for a keyword, evicting old entries if over capacity.
+     */
+    public void put(String keyword, String model, String workerVersion, List<Idea> ideas) {
+        String key = normalize(keyword);
+        try {
+            cacheDAO.upsert(key, model, workerVersion, IdeaJsonCodec.encodeList(ideas));
+            evictions.addAndGet(cacheDAO.evictLeastRecentlyUsed(maxEntries));
+        } catch (SQLException | IOException e) {
+            logger.warn("Could not cache research for '{}'", key, e);
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getExpirations() {
+        return expirations.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public double getHitRate() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0.0 : (double) hits.get() / total;
+    }
+}
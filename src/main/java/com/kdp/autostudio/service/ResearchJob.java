@@ -0,0 +1,223 @@
+package com.kdp.autostudio.service;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A research job tracked by {@link ResearchJobScheduler}.
+ * Each job has its own ID and private working directory so concurrent jobs never share files.
+ * A job can be cancelled while queued or running; cancelling a running job kills
+ * the worker process tree it is attached to.
+ */
+public class ResearchJob {
+
+    public enum Status {
+        QUEUED, RUNNING, DONE, FAILED, CANCELLED
+    }
+
+    /** Priority for jobs a user is waiting on in the UI. */
+    public static final int PRIORITY_INTERACTIVE = 10;
+    /** Priority for large background batches such as overnight runs. */
+    public static final int PRIORITY_BULK = 0;
+
+    private final String id;
+    private final int priority;
+    private final List<String> keywords;
+    private final Path workDir;
+    private final LocalDateTime submittedAt;
+    private final CompletableFuture<Integer> result;
+    private volatile Status status;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile long workerAttachedNanos;
+    private volatile long lastProgressNanos;
+    private volatile String error;
+    private volatile boolean cancelRequested;
+    private volatile boolean timedOut;
+    private PythonWorker worker;
+
+    ResearchJob(String id, int priority, List<String> keywords, Path workDir) {
+        this.id = id;
+        this.priority = priority;
+        this.keywords = List.copyOf(keywords);
+        this.workDir = workDir;
+        this.submittedAt = LocalDateTime.now();
+        this.result = new CompletableFuture<>();
+        this.status = Status.QUEUED;
+    }
+
+    /**
+     * Move a queued job to running.
+     *
+     * @return false if the job was cancelled before it could start
+     */
+    synchronized boolean markRunning() {
+        if (status != Status.QUEUED) {
+            return false;
+        }
+        this.startedAt = LocalDateTime.now();
+        this.lastProgressNanos = System.nanoTime();
+        this.status = Status.RUNNING;
+        return true;
+    }
+
+    synchronized void markDone(int ideaCount) {
+        if (isFinished()) {
+            return;
+        }
+        this.finishedAt = LocalDateTime.now();
+        this.status = Status.DONE;
+        result.complete(ideaCount);
+    }
+
+    synchronized void markFailed(Throwable cause) {
+        if (isFinished()) {
+            return;
+        }
+        this.finishedAt = LocalDateTime.now();
+        this.error = cause.getMessage();
+        this.status = Status.FAILED;
+        result.completeExceptionally(cause);
+    }
+
+    /**
+     * Finish a job whose cancellation was requested: timeouts count as failures,
+     * everything else as a cancellation.
+     */
+    synchronized void markCancelled() {
+        if (isFinished()) {
+            return;
+        }
+        this.finishedAt = LocalDateTime.now();
+        if (timedOut) {
+            this.status = Status.FAILED;
+            result.completeExceptionally(new TimeoutException(error));
+        } else {
+            this.status = Status.CANCELLED;
+            result.completeExceptionally(new CancellationException(error));
+        }
+    }
+
+    /**
+     * Record that the job made progress, resetting its per-keyword deadline.
+     */
+    void markProgress() {
+        this.lastProgressNanos = System.nanoTime();
+    }
+
+    /**
+     * Attach the worker running this job so that cancellation can kill it.
+     * The job's deadlines start now, so time spent waiting for a worker does not count.
+     *
+     * @return false if the job was already cancelled and the worker should not be used
+     */
+    synchronized boolean attachWorker(PythonWorker worker) {
+        if (cancelRequested) {
+            return false;
+        }
+        this.worker = worker;
+        this.workerAttachedNanos = System.nanoTime();
+        this.lastProgressNanos = workerAttachedNanos;
+        return true;
+    }
+
+    synchronized void detachWorker() {
+        this.worker = null;
+    }
+
+    /**
+     * Cancel the job. A queued job finishes immediately; a running job has its
+     * worker process tree killed and finishes once the scheduler observes it.
+     * Ideas already saved by the job are kept.
+     *
+     * @return false if the job had already finished
+     */
+    public boolean cancel() {
+        return cancel("Cancelled by request", false);
+    }
+
+    synchronized boolean cancel(String reason, boolean timeout) {
+        if (isFinished() || cancelRequested) {
+            return false;
+        }
+        this.cancelRequested = true;
+        this.timedOut = timeout;
+        this.error = reason;
+
+        if (status == Status.QUEUED) {
+            markCancelled();
+        } else if (worker != null) {
+            worker.kill();
+        }
+        return true;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Scheduling priority; higher values run first.
+     */
+    public int getPriority() {
+        return priority;
+    }
+
+    public List<String> getKeywords() {
+        return keywords;
+    }
+
+    public Path getWorkDir() {
+        return workDir;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    /**
+     * When the job was given a worker, or 0 if it has not been yet.
+     */
+    long getWorkerAttachedNanos() {
+        return workerAttachedNanos;
+    }
+
+    long getLastProgressNanos() {
+        return lastProgressNanos;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public boolean isCancelRequested() {
+        return cancelRequested;
+    }
+
+    /**
+     * Future that completes with the number of ideas the job produced.
+     */
+    public CompletableFuture<Integer> getResult() {
+        return result;
+    }
+
+    public boolean isFinished() {
+        return status == Status.DONE || status == Status.FAILED || status == Status.CANCELLED;
+    }
+}
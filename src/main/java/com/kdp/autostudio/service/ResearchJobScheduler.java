@@ -0,0 +1,309 @@
+package com.kdp.autostudio.service;
+
+import com.kdp.autostudio.util.AppExecutors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Schedules research jobs onto a bounded number of concurrent slots.
+ * Jobs beyond the limit wait in a queue ordered by priority, and first-come,
+ * first-served among jobs of equal priority. Every job
+ * gets a unique ID and its own working directory under the system temp dir,
+ * and its status can be queried while it is queued, running or finished.
+ * Running jobs are subject to an overall deadline and a per-keyword deadline, both
+ * counted from when the job gets a worker; a job that misses either has its worker
+ * killed and is marked failed.
+ */
+public class ResearchJobScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(ResearchJobScheduler.class);
+    private static final int MAX_FINISHED_JOBS = 100;
+    private static final long WATCHDOG_INTERVAL_SECONDS = 5;
+
+    /**
+     * Work performed for a job once it is given a slot.
+     */
+    @FunctionalInterface
+    public interface JobTask {
+        /**
+         * @return Number of ideas produced by the job
+         */
+        int run(ResearchJob job) throws Exception;
+    }
+
+    private final int maxConcurrent;
+    private final Path rootDir;
+    private final ExecutorService executor;
+    private final Duration jobTimeout;
+    private final Duration keywordTimeout;
+    private final ScheduledExecutorService watchdog;
+    private final PriorityQueue<QueuedJob> queue = new PriorityQueue<>(
+            Comparator.comparingInt((QueuedJob queued) -> -queued.job().getPriority())
+                      .thenComparingLong(QueuedJob::sequence));
+    private final Map<String, ResearchJob> jobs = new ConcurrentHashMap<>();
+    private final Deque<String> finishedJobIds = new ArrayDeque<>();
+    private final AtomicLong jobIds = new AtomicLong(1);
+    private int running;
+    private volatile boolean closed;
+
+    private record QueuedJob(ResearchJob job, JobTask task, long sequence) {
+    }
+
+    /**
+     * @param maxConcurrent Maximum number of jobs running at once
+     */
+    public ResearchJobScheduler(int maxConcurrent) {
+        this(maxConcurrent, Paths.get(System.getProperty("java.io.tmpdir"), "kdp-research"),
+             AppExecutors.getInstance().io());
+    }
+
+    /**
+     * @param maxConcurrent Maximum number of jobs running at once
+     * @param rootDir Directory under which per-job working directories are created
+     * @param executor Executor that runs the jobs; they block on worker I/O, so virtual threads suit
+     */
+    public ResearchJobScheduler(int maxConcurrent, Path rootDir, ExecutorService executor) {
+        this(maxConcurrent, rootDir, executor, null, null);
+    }
+
+    /**
+     * @param maxConcurrent Maximum number of jobs running at once
+     * @param rootDir Directory under which per-job working directories are created
+     * @param executor Executor that runs the jobs; they block on worker I/O, so virtual threads suit
+     * @param jobTimeout Maximum running time of a job, or null for no limit
+     * @param keywordTimeout Maximum time a running job may go without finishing a keyword, or null for no limit
+     */
+    public ResearchJobScheduler(int maxConcurrent, Path rootDir, ExecutorService executor,
+                                Duration jobTimeout, Duration keywordTimeout) {
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.rootDir = rootDir;
+        this.executor = executor;
+        this.jobTimeout = jobTimeout;
+        this.keywordTimeout = keywordTimeout;
+        if (jobTimeout != null || keywordTimeout != null) {
+            this.watchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "research-deadlines");
+                thread.setDaemon(true);
+                return thread;
+            });
+            watchdog.scheduleWithFixedDelay(this::enforceDeadlines,
+                    WATCHDOG_INTERVAL_SECONDS, WATCHDOG_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        } else {
+            this.watchdog = null;
+        }
+    }
+
+    /**
+     * Queue a job at interactive priority. It starts immediately if a slot is free.
+     *
+     * @param keywords Seed keywords of the job
+     * @param task Work to run once the job is scheduled
+     * @return The job handle, whose result future completes when the job finishes
+     */
+    public ResearchJob submit(List<String> keywords, JobTask task) {
+        return submit(keywords, ResearchJob.PRIORITY_INTERACTIVE, task);
+    }
+
+    /**
+     * Queue a job. It starts immediately if a slot is free, otherwise it waits
+     * behind all queued jobs of higher or equal priority.
+     *
+     * @param keywords Seed keywords of the job
+     * @param priority Scheduling priority; higher values run first
+     * @param task Work to run once the job is scheduled
+     * @return The job handle, whose result future completes when the job finishes
+     * @throws IllegalStateException if the scheduler has been shut down
+     */
+    public ResearchJob submit(List<String> keywords, int priority, JobTask task) {
+        if (closed) {
+            throw new IllegalStateException("Research job scheduler is shut down");
+        }
+        long sequence = jobIds.getAndIncrement();
+        String id = "job-" + sequence;
+        ResearchJob job = new ResearchJob(id, priority, keywords, rootDir.resolve(id));
+        jobs.put(id, job);
+
+        synchronized (this) {
+            queue.add(new QueuedJob(job, task, sequence));
+        }
+        logger.info("Research {} queued with {} keywords at priority {}", id, keywords.size(), priority);
+        dispatch();
+        return job;
+    }
+
+    private void dispatch() {
+        List<QueuedJob> toStart = new ArrayList<>();
+        List<ResearchJob> skipped = new ArrayList<>();
+        synchronized (this) {
+            while (running < maxConcurrent && !queue.isEmpty()) {
+                QueuedJob queued = queue.poll();
+                if (queued.job().isFinished()) {
+                    // Cancelled while waiting in the queue
+                    skipped.add(queued.job());
+                    continue;
+                }
+                running++;
+                toStart.add(queued);
+            }
+        }
+        skipped.forEach(this::retire);
+        for (QueuedJob queued : toStart) {
+            try {
+                executor.execute(() -> runJob(queued));
+            } catch (RejectedExecutionException e) {
+                // The executor was shut down; the job never starts, so its slot is given back
+                synchronized (this) {
+                    running--;
+                }
+                queued.job().markFailed(e);
+                retire(queued.job());
+                logger.warn("Research {} could not be started: executor is shut down", queued.job().getId());
+            }
+        }
+    }
+
+    private void runJob(QueuedJob queued) {
+        ResearchJob job = queued.job();
+        try {
+            if (!job.markRunning()) {
+                return;
+            }
+            Files.createDirectories(job.getWorkDir());
+            logger.info("Research {} started", job.getId());
+
+            int ideaCount = queued.task().run(job);
+
+            if (job.isCancelRequested()) {
+                finishCancelled(job);
+            } else {
+                job.markDone(ideaCount);
+                deleteWorkDir(job);
+                logger.info("Research {} done with {} ideas", job.getId(), ideaCount);
+            }
+        } catch (Throwable e) {
+            if (job.isCancelRequested()) {
+                finishCancelled(job);
+            } else {
+                job.markFailed(e);
+                logger.error("Research {} failed; working files kept in {}", job.getId(), job.getWorkDir(), e);
+            }
+        } finally {
+            synchronized (this) {
+                running--;
+            }
+            retire(job);
+            dispatch();
+        }
+    }
+
+    private void finishCancelled(ResearchJob job) {
+        job.markCancelled();
+        deleteWorkDir(job);
+        logger.info("Research {} stopped: {}", job.getId(), job.getError());
+    }
+
+    private synchronized void retire(ResearchJob job) {
+        finishedJobIds.addLast(job.getId());
+        while (finishedJobIds.size() > MAX_FINISHED_JOBS) {
+            jobs.remove(finishedJobIds.pollFirst());
+        }
+    }
+
+    private void enforceDeadlines() {
+        long now = System.nanoTime();
+        for (ResearchJob job : jobs.values()) {
+            // Jobs still waiting for a worker are not on the clock yet
+            if (job.getStatus() != ResearchJob.Status.RUNNING || job.isCancelRequested()
+                    || job.getWorkerAttachedNanos() == 0) {
+                continue;
+            }
+            if (jobTimeout != null && now - job.getWorkerAttachedNanos() > jobTimeout.toNanos()) {
+                logger.warn("Research {} exceeded its {} deadline", job.getId(), jobTimeout);
+                job.cancel("Job deadline of " + jobTimeout + " exceeded", true);
+            } else if (keywordTimeout != null && now - job.getLastProgressNanos() > keywordTimeout.toNanos()) {
+                logger.warn("Research {} spent more than {} on one keyword", job.getId(), keywordTimeout);
+                job.cancel("Keyword deadline of " + keywordTimeout + " exceeded", true);
+            }
+        }
+    }
+
+    private void deleteWorkDir(ResearchJob job) {
+        if (!Files.exists(job.getWorkDir())) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(job.getWorkDir())) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        } catch (IOException e) {
+            logger.warn("Could not delete working directory {}", job.getWorkDir(), e);
+        }
+    }
+
+    /**
+     * Look up a job by ID. Finished jobs are remembered for a limited time.
+     */
+    public ResearchJob getJob(String id) {
+        return jobs.get(id);
+    }
+
+    /**
+     * All known jobs, oldest first.
+     */
+    public List<ResearchJob> getJobs() {
+        List<ResearchJob> result = new ArrayList<>(jobs.values());
+        result.sort(Comparator.comparing(ResearchJob::getSubmittedAt));
+        return result;
+    }
+
+    public synchronized int getQueuedCount() {
+        return queue.size();
+    }
+
+    public synchronized int getRunningCount() {
+        return running;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    /**
+     * Cancel a job by ID.
+     *
+     * @return false if the job is unknown or already finished
+     */
+    public boolean cancel(String id) {
+        ResearchJob job = jobs.get(id);
+        return job != null && job.cancel();
+    }
+
+    /**
+     * Fail every job that is still queued, refuse new ones and stop enforcing deadlines.
+     * Running jobs are left to finish.
+     */
+    public void shutdown() {
+        closed = true;
+        if (watchdog != null) {
+            watchdog.shutdownNow();
+        }
+        List<QueuedJob> dropped = new ArrayList<>();
+        synchronized (this) {
+            QueuedJob queued;
+            while ((queued = queue.poll()) != null) {
+                dropped.add(queued);
+            }
+        }
+        for (QueuedJob queued : dropped) {
+            queued.job().markFailed(new CancellationException("Scheduler shut down"));
+        }
+    }
+}
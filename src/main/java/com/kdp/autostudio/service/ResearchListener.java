@@ -0,0 +1,34 @@
+package com.kdp.autostudio.service;
+
+import com.kdp.autostudio.model.Idea;
+
+/**
+ * Receives the progress of a research request as it happens.
+ * Callbacks arrive on worker reader and ingestion threads and must not block for long.
+ */
+public interface ResearchListener {
+    /**
+     * Called for each idea once it has been scored and saved (or read from the cache).
+     */
+    void onIdea(Idea idea);
+
+    /**
+     * Called when every idea for a seed keyword has been delivered.
+     *
+     * @param keyword The seed keyword as it was requested
+     * @param ideaCount Number of ideas produced for the keyword
+     */
+    default void onKeywordDone(String keyword, int ideaCount) {
+    }
+
+    /**
+     * Called when the worker starts or finishes a phase of a keyword, such as
+     * "scrape", "analyze" or "process". Keywords answered from the cache report no phases.
+     *
+     * @param keyword The seed keyword as it was requested
+     * @param phase Name of the phase
+     * @param started True when the phase starts, false when it ends
+     */
+    default void onPhase(String keyword, String phase, boolean started) {
+    }
+}
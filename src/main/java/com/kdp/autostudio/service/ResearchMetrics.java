@@ -0,0 +1,54 @@
+package com.kdp.autostudio.service;
+
+import com.kdp.autostudio.util.LatencyHistogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Aggregates the phase events reported by Python workers: a latency histogram per
+ * phase, plus competitor counts and OpenAI token usage. This is what tells a job that
+ * is stuck scraping apart from one waiting on OpenAI.
+ */
+public class ResearchMetrics {
+    private final Map<String, LatencyHistogram> phases = new ConcurrentHashMap<>();
+    private final AtomicLong competitors = new AtomicLong();
+    private final AtomicLong promptTokens = new AtomicLong();
+    private final AtomicLong completionTokens = new AtomicLong();
+
+    /**
+     * Record a "phase" message. Only phase ends carry measurements; starts are ignored.
+     */
+    public void record(WorkerMessage phase) {
+        if (phase.getPhase() == null || phase.isPhaseStart()) {
+            return;
+        }
+        phases.computeIfAbsent(phase.getPhase(), name -> new LatencyHistogram()).record(phase.getElapsedMillis());
+        competitors.addAndGet(phase.getCompetitors());
+        promptTokens.addAndGet(phase.getPromptTokens());
+        completionTokens.addAndGet(phase.getCompletionTokens());
+    }
+
+    /**
+     * Latency summary of every phase seen so far, by phase name.
+     */
+    public Map<String, LatencyHistogram.Snapshot> getPhaseLatencies() {
+        Map<String, LatencyHistogram.Snapshot> result = new TreeMap<>();
+        phases.forEach((name, histogram) -> result.put(name, histogram.snapshot()));
+        return result;
+    }
+
+    public long getCompetitorCount() {
+        return competitors.get();
+    }
+
+    public long getPromptTokens() {
+        return promptTokens.get();
+    }
+
+    public long getCompletionTokens() {
+        return completionTokens.get();
+    }
+}
@@ -0,0 +1,41 @@
+package com.kdp.autostudio.service;
+
+import com.kdp.autostudio.model.Idea;
+
+import java.util.List;
+
+/**
+ * Merged outcome of a sharded research request.
+ * Ideas from successful shards are kept in the order of the original keyword
+ * list; keywords of shards that failed are reported separately.
+ */
+public class ResearchResult {
+    private final List<Idea> ideas;
+    private final int ideaCount;
+    private final List<String> failedKeywords;
+
+    public ResearchResult(List<Idea> ideas, int ideaCount, List<String> failedKeywords) {
+        this.ideas = ideas;
+        this.ideaCount = ideaCount;
+        this.failedKeywords = failedKeywords;
+    }
+
+    /**
+     * Ideas in keyword order. Empty when the request was streamed without collecting.
+     */
+    public List<Idea> getIdeas() {
+        return ideas;
+    }
+
+    public int getIdeaCount() {
+        return ideaCount;
+    }
+
+    public List<String> getFailedKeywords() {
+        return failedKeywords;
+    }
+
+    public boolean isComplete() {
+        return failedKeywords.isEmpty();
+    }
+}
@@ -1,22 +1,31 @@
 package com.kdp.autostudio.service;
 
 import com.kdp.autostudio.config.ConfigManager;
+import com.kdp.autostudio.config.ScoringWeights;
+import com.kdp.autostudio.dao.CompetitorDAO;
 import com.kdp.autostudio.dao.IIdeaDAO;
 import com.kdp.autostudio.dao.IdeaDAO;
+import com.kdp.autostudio.model.Competitor;
 import com.kdp.autostudio.model.Idea;
+import com.kdp.autostudio.util.AppExecutors;
+import com.kdp.autostudio.util.CancellableFuture;
+import com.kdp.autostudio.util.SingleFlight;
 import com.google.gson.Gson;
-import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.*;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.io.IOException;
 import java.nio.file.Paths;
-import java.util.ArrayList;
-import java.util.List;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 /**
  * Service for managing research jobs and processing results.
@@ -26,15 +35,23 @@ public class ResearchService implements IResearchService {
     private static final Logger logger = LoggerFactory.getLogger(ResearchService.class);
     private final ConfigManager configManager;
     private final IIdeaDAO ideaDAO;
+    private final PythonWorkerPool workerPool;
+    private final ResearchJobScheduler scheduler;
+    private final ResearchCache researchCache;
+    private final IngestionPipeline ingestion;
+    private final ResearchMetrics researchMetrics;
+    private final SingleFlight<String, List<Idea>> inFlight;
+    private final AppExecutors executors;
     private final Gson gson;
+    private volatile boolean shutdown;
 
     /**
-     * Default constructor that uses SQLite implementation.
+     * Default constructor that uses SQLite implementation, the shared worker pool
+     * and the persistent research cache.
      */
     public ResearchService() {
-        this.configManager = ConfigManager.getInstance();
-        this.ideaDAO = new IdeaDAO();
-        this.gson = new Gson();
+        this(new IdeaDAO(), PythonWorkerPool.getInstance(), new ResearchCache(), AppExecutors.getInstance(),
+             new CompetitorDAO());
     }
 
     /**
@@ -44,100 +61,499 @@ public class ResearchService implements IResearchService {
      * @param ideaDAO The data access object to use
      */
     public ResearchService(IIdeaDAO ideaDAO) {
+        this(ideaDAO, PythonWorkerPool.getInstance());
+    }
+
+    /**
+     * Constructor that allows dependency injection of both the DAO and the worker pool.
+     *
+     * @param ideaDAO The data access object to use
+     * @param workerPool The pool of Python workers that run research jobs
+     */
+    public ResearchService(IIdeaDAO ideaDAO, PythonWorkerPool workerPool) {
+        this(ideaDAO, workerPool, null);
+    }
+
+    /**
+     * Constructor that allows dependency injection of the DAO, worker pool and research cache.
+     *
+     * @param ideaDAO The data access object to use
+     * @param workerPool The pool of Python workers that run research jobs
+     * @param researchCache Cache consulted before sending keywords to the worker, or null to disable caching
+     */
+    public ResearchService(IIdeaDAO ideaDAO, PythonWorkerPool workerPool, ResearchCache researchCache) {
+        this(ideaDAO, workerPool, researchCache, AppExecutors.getInstance());
+    }
+
+    /**
+     * Constructor that allows dependency injection of every collaborator, including the executors.
+     *
+     * @param ideaDAO The data access object to use
+     * @param workerPool The pool of Python workers that run research jobs
+     * @param researchCache Cache consulted before sending keywords to the worker, or null to disable caching
+     * @param executors Executors for blocking and CPU-bound work
+     */
+    public ResearchService(IIdeaDAO ideaDAO, PythonWorkerPool workerPool, ResearchCache researchCache,
+                           AppExecutors executors) {
+        this(ideaDAO, workerPool, researchCache, executors, null);
+    }
+
+    /**
+     * Constructor that allows dependency injection of every collaborator, including where
+     * scraped competitor listings are saved.
+     *
+     * @param ideaDAO The data access object to use
+     * @param workerPool The pool of Python workers that run research jobs
+     * @param researchCache Cache consulted before sending keywords to the worker, or null to disable caching
+     * @param executors Executors for blocking and CPU-bound work
+     * @param competitorDAO DAO competitor listings are saved to, or null to discard them
+     */
+    public ResearchService(IIdeaDAO ideaDAO, PythonWorkerPool workerPool, ResearchCache researchCache,
+                           AppExecutors executors, CompetitorDAO competitorDAO) {
         this.configManager = ConfigManager.getInstance();
         this.ideaDAO = ideaDAO;
+        this.workerPool = workerPool;
+        this.researchCache = researchCache;
+        this.executors = executors;
+        this.ingestion = new IngestionPipeline(ideaDAO, competitorDAO,
+                configManager.getConfig().getIngestionQueueCapacity(),
+                configManager.getConfig().getIngestionBatchSize(), executors.io());
+        this.researchMetrics = new ResearchMetrics();
+        this.inFlight = new SingleFlight<>();
+        this.scheduler = new ResearchJobScheduler(workerPool.getSize(),
+                Paths.get(System.getProperty("java.io.tmpdir"), "kdp-research"), executors.io(),
+                Duration.ofMinutes(configManager.getConfig().getResearchJobTimeoutMinutes()),
+                Duration.ofMinutes(configManager.getConfig().getResearchKeywordTimeoutMinutes()));
         this.gson = new Gson();
     }
 
     /**
      * Start a research job for the given keywords.
      * Returns a CompletableFuture that completes when research is done.
+     * Ideas from shards that succeeded are returned even if other shards failed.
      */
     public CompletableFuture<List<Idea>> startResearch(List<String> keywords) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                // Build Python command
-                String pythonPath = "python3"; // or "python" on Windows
-                String workerPath = configManager.getConfig().getPythonWorkerPath();
-                String keywordsStr = String.join(",", keywords);
-                String outputFile = System.getProperty("java.io.tmpdir") + File.separator + "research_output.json";
-
-                // Execute Python worker
-                ProcessBuilder pb = new ProcessBuilder(
-                    pythonPath,
-                    workerPath,
-                    "--keywords", keywordsStr,
-                    "--openai-key", configManager.getOpenAIApiKey(),
-                    "--output", outputFile
-                );
-
-                Process process = pb.start();
-
-                // Read output
-                try (BufferedReader reader = new BufferedReader(
-                        new InputStreamReader(process.getInputStream()))) {
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        logger.info("Python worker: {}", line);
-                    }
+        return runResearch(keywords, idea -> { }, true).thenApply(ResearchResult::getIdeas);
+    }
+
+    /**
+     * Start a research job and publish each idea as soon as the worker emits it.
+     * Ideas are decoded one line at a time, scored, saved and handed to the
+     * subscriber, so the first result arrives while later keywords are still running.
+     */
+    @Override
+    public CompletableFuture<Integer> streamResearch(List<String> keywords, Consumer<Idea> subscriber) {
+        return runResearch(keywords, subscriber::accept, false).thenApply(ResearchResult::getIdeaCount);
+    }
+
+    /**
+     * Research the keywords in parallel shards and merge the results.
+     * Keywords with a fresh entry in the research cache are answered from it without
+     * touching the worker; the remaining keywords are split into shards of
+     * {@code researchShardSize} that are scheduled as separate jobs. The merged ideas
+     * keep the original keyword order. The future fails only if every shard failed.
+     * A keyword that another request is already researching is not sent to the worker
+     * again; this request waits for that research and shares its ideas.
+     *
+     * @param keywords Seed keywords to research
+     * @param listener Receives each idea as it becomes available, in arrival order
+     * @param collect Whether to keep the ideas in the result, or only count them
+     * @return Future with the merged result and any keywords whose shard failed
+     */
+    public CompletableFuture<ResearchResult> runResearch(List<String> keywords, ResearchListener listener,
+                                                         boolean collect) {
+        return runResearch(keywords, listener, collect, ResearchJob.PRIORITY_INTERACTIVE);
+    }
+
+    /**
+     * Research the keywords as in {@link #runResearch(List, ResearchListener, boolean)},
+     * scheduling the shards at the given priority.
+     * Cancelling the returned future, or any stage derived from it, cancels every
+     * shard job: queued shards never start and running ones have their worker
+     * process tree killed. Ideas saved before the cancellation are kept.
+     *
+     * @param priority Scheduling priority of the shard jobs; higher values run first
+     */
+    public CompletableFuture<ResearchResult> runResearch(List<String> keywords, ResearchListener listener,
+                                                         boolean collect, int priority) {
+        List<ResearchJob> jobs = new CopyOnWriteArrayList<>();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        CancellableFuture<ResearchResult> result = new CancellableFuture<>(() -> {
+            cancelled.set(true);
+            jobs.forEach(ResearchJob::cancel);
+        });
+
+        // Cache lookups hit SQLite and read the worker script, so they run on the I/O executor
+        CompletableFuture.supplyAsync(() -> lookupCached(keywords, listener), executors.io())
+            .thenCompose(lookup -> researchMisses(keywords, lookup, listener, collect, priority, jobs, cancelled))
+            .whenComplete((research, error) -> {
+                if (error != null) {
+                    result.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error);
+                } else {
+                    result.complete(research);
                 }
+            });
+        return result;
+    }
 
-                int exitCode = process.waitFor();
-                if (exitCode != 0) {
-                    throw new RuntimeException("Python worker failed with exit code: " + exitCode);
+    private record CacheLookup(String model, String workerVersion, Map<String, List<Idea>> cached,
+                               List<String> misses) {
+    }
+
+    private CacheLookup lookupCached(List<String> keywords, ResearchListener listener) {
+        Map<String, List<Idea>> cached = new HashMap<>();
+        List<String> misses = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+
+        if (researchCache == null) {
+            for (String keyword : keywords) {
+                if (seen.add(ResearchCache.normalize(keyword))) {
+                    misses.add(keyword);
                 }
+            }
+            return new CacheLookup(null, null, cached, misses);
+        }
+
+        String model = configManager.getConfig().getOpenAIModel();
+        String workerVersion;
+        try {
+            workerVersion = workerPool.resolveWorkerVersion();
+        } catch (IOException | InterruptedException e) {
+            throw new RuntimeException("Could not start a Python worker", e);
+        }
+
+        for (String keyword : keywords) {
+            String key = ResearchCache.normalize(keyword);
+            if (!seen.add(key)) {
+                continue;
+            }
+            List<Idea> ideas = researchCache.get(key, model, workerVersion);
+            if (ideas != null) {
+                cached.put(key, ideas);
+                ideas.forEach(idea -> publish(listener, idea));
+                notifyKeywordDone(listener, keyword, ideas.size());
+            } else {
+                misses.add(keyword);
+            }
+        }
+
+        if (!cached.isEmpty()) {
+            logger.info("Research cache answered {} of {} keywords", cached.size(), seen.size());
+        }
+        return new CacheLookup(model, workerVersion, cached, misses);
+    }
 
-                // Parse results
-                List<Idea> ideas = parseResults(outputFile);
+    private CompletableFuture<ResearchResult> researchMisses(List<String> keywords, CacheLookup lookup,
+                                                             ResearchListener listener, boolean collect,
+                                                             int priority, List<ResearchJob> jobs,
+                                                             AtomicBoolean cancelled) {
+        Map<String, List<Idea>> fresh = new ConcurrentHashMap<>();
+        // Idea counts of the keywords this request researched to the end, even in shards that later failed
+        Map<String, Integer> finished = new ConcurrentHashMap<>();
+        List<List<String>> groups = new ArrayList<>();
+        List<CompletableFuture<Integer>> groupResults = new ArrayList<>();
 
-                // Save to database
-                for (Idea idea : ideas) {
-                    idea.calculateScore(configManager.getScoringWeights());
-                    ideaDAO.insert(idea);
+        // Keywords already being researched by another request are joined, not researched again
+        Map<String, SingleFlight<String, List<Idea>>.Claim> claims = new HashMap<>();
+        List<String> leading = new ArrayList<>();
+        for (String keyword : lookup.misses()) {
+            String key = ResearchCache.normalize(keyword);
+            SingleFlight<String, List<Idea>>.Claim claim = inFlight.claim(key);
+            if (claim.isLeader()) {
+                claims.put(key, claim);
+                leading.add(keyword);
+                continue;
+            }
+            groups.add(List.of(keyword));
+            // Delivered on the I/O executor so the leader's ingestion thread is not held up
+            groupResults.add(claim.getFuture().thenApplyAsync(ideas -> {
+                ideas.forEach(idea -> publish(listener, idea));
+                notifyKeywordDone(listener, keyword, ideas.size());
+                if (collect) {
+                    fresh.put(key, ideas);
                 }
+                return ideas.size();
+            }, executors.io()));
+        }
+        if (leading.size() < lookup.misses().size()) {
+            logger.info("Joined in-flight research for {} of {} keywords",
+                    lookup.misses().size() - leading.size(), lookup.misses().size());
+        }
+
+        // Every leading claim must be released, or later requests for its keyword wait forever
+        try {
+            for (List<String> shard : shard(leading, configManager.getConfig().getResearchShardSize())) {
+                Map<String, List<Idea>> shardIdeas = new ConcurrentHashMap<>();
+                ResearchJob job = submitShard(shard, priority, new PythonWorker.WorkerListener() {
+                    @Override
+                    public void onIdea(String seed, Idea idea) {
+                        // Always kept, since requests joining this keyword need the ideas too
+                        shardIdeas.computeIfAbsent(ResearchCache.normalize(seed),
+                                key -> Collections.synchronizedList(new ArrayList<>())).add(idea);
+                        publish(listener, idea);
+                    }
 
-                return ideas;
+                    @Override
+                    public void onKeywordDone(String seed, int ideaCount) {
+                        notifyKeywordDone(listener, seed, ideaCount);
+                        String key = ResearchCache.normalize(seed);
+                        List<Idea> ideas = List.copyOf(shardIdeas.getOrDefault(key, List.of()));
+                        // Cached before the claim is released, so a later request finds it in one or the other
+                        if (researchCache != null) {
+                            researchCache.put(key, lookup.model(), lookup.workerVersion(), ideas);
+                        }
+                        finished.put(key, ideas.size());
+                        if (collect) {
+                            fresh.put(key, ideas);
+                        }
+                        SingleFlight<String, List<Idea>>.Claim claim = claims.get(key);
+                        if (claim != null) {
+                            claim.complete(ideas);
+                        }
+                    }
 
-            } catch (Exception e) {
-                logger.error("Research job failed", e);
-                throw new RuntimeException("Research failed", e);
+                    @Override
+                    public void onPhase(WorkerMessage phase) {
+                        try {
+                            listener.onPhase(phase.getSeed(), phase.getPhase(), phase.isPhaseStart());
+                        } catch (RuntimeException e) {
+                            logger.warn("Research subscriber failed for phase {} of {}",
+                                    phase.getPhase(), phase.getSeed(), e);
+                        }
+                    }
+                });
+                jobs.add(job);
+                if (cancelled.get()) {
+                    // The caller cancelled while shards were still being submitted
+                    job.cancel();
+                }
+                groups.add(shard);
+                groupResults.add(job.getResult().whenComplete((count, error) -> {
+                    if (error != null) {
+                        // Keywords finished before the failure were already cached and released with their ideas
+                        shard.forEach(keyword -> claims.get(ResearchCache.normalize(keyword)).fail(error));
+                        return;
+                    }
+                    for (String keyword : shard) {
+                        String key = ResearchCache.normalize(keyword);
+                        List<Idea> ideas = List.copyOf(shardIdeas.getOrDefault(key, List.of()));
+                        // Keywords are cached and released as they finish; this only catches any left over
+                        claims.get(key).complete(ideas);
+                        if (collect) {
+                            fresh.putIfAbsent(key, ideas);
+                        }
+                    }
+                }));
             }
-        });
+        } catch (RuntimeException e) {
+            // The request fails as a whole, so shards already submitted are cancelled
+            jobs.forEach(ResearchJob::cancel);
+            claims.values().forEach(claim -> claim.fail(e));
+            throw e;
+        }
+
+        return CompletableFuture.allOf(groupResults.toArray(CompletableFuture<?>[]::new))
+            .handle((ignored, error) -> {
+                List<String> failedKeywords = new ArrayList<>();
+                Throwable lastFailure = null;
+                int ideaCount = 0;
+
+                for (int i = 0; i < groups.size(); i++) {
+                    CompletableFuture<Integer> result = groupResults.get(i);
+                    if (result.isCompletedExceptionally()) {
+                        // Keywords that finished before their shard failed are saved and cached, so they count
+                        for (String keyword : groups.get(i)) {
+                            Integer count = finished.get(ResearchCache.normalize(keyword));
+                            if (count != null) {
+                                ideaCount += count;
+                            } else {
+                                failedKeywords.add(keyword);
+                            }
+                        }
+                        lastFailure = result.handle((count, e) -> e).join();
+                    } else {
+                        ideaCount += result.join();
+                    }
+                }
+
+                if (!failedKeywords.isEmpty() && lookup.cached().isEmpty()
+                        && failedKeywords.size() == lookup.misses().size()) {
+                    throw new RuntimeException("Research failed for all keywords", lastFailure);
+                }
+                if (!failedKeywords.isEmpty()) {
+                    logger.warn("Research failed for {} of {} keywords: {}",
+                            failedKeywords.size(), keywords.size(), failedKeywords);
+                }
+
+                // Merge cached and freshly researched ideas back into keyword order
+                List<Idea> merged = new ArrayList<>();
+                for (List<Idea> ideas : lookup.cached().values()) {
+                    ideaCount += ideas.size();
+                }
+                if (collect) {
+                    Set<String> seen = new HashSet<>();
+                    for (String keyword : keywords) {
+                        String key = ResearchCache.normalize(keyword);
+                        if (!seen.add(key)) {
+                            continue;
+                        }
+                        merged.addAll(lookup.cached().getOrDefault(key, fresh.getOrDefault(key, List.of())));
+                    }
+                }
+                return new ResearchResult(merged, ideaCount, failedKeywords);
+            });
+    }
+
+    private static List<List<String>> shard(List<String> keywords, int shardSize) {
+        int size = Math.max(1, shardSize);
+        List<List<String>> shards = new ArrayList<>();
+        for (int start = 0; start < keywords.size(); start += size) {
+            shards.add(List.copyOf(keywords.subList(start, Math.min(start + size, keywords.size()))));
+        }
+        return shards;
+    }
+
+    /**
+     * Queue a research job on the scheduler and return its handle,
+     * which can be used to follow the job's status.
+     * The job always goes to the worker; the research cache is not consulted.
+     *
+     * @param keywords Seed keywords to research
+     * @param subscriber Receives each idea as it becomes available
+     * @return The scheduled job
+     */
+    public ResearchJob submitResearch(List<String> keywords, Consumer<Idea> subscriber) {
+        return submitShard(keywords, ResearchJob.PRIORITY_INTERACTIVE,
+                (seed, idea) -> publish(subscriber::accept, idea));
+    }
+
+    private ResearchJob submitShard(List<String> keywords, int priority, PythonWorker.WorkerListener listener) {
+        return scheduler.submit(keywords, priority, job -> runOnWorker(job, listener));
     }
 
-    private List<Idea> parseResults(String outputFile) throws IOException {
-        List<Idea> ideas = new ArrayList<>();
+    private int runOnWorker(ResearchJob job, PythonWorker.WorkerListener listener)
+            throws IOException, InterruptedException {
+        JsonObject request = new JsonObject();
+        request.addProperty("id", job.getId());
+        request.add("keywords", gson.toJsonTree(job.getKeywords()));
+        request.addProperty("workdir", job.getWorkDir().toString());
+
+        ScoringWeights weights = configManager.getScoringWeights();
+        IngestionPipeline.Sink sink = new IngestionPipeline.Sink() {
+            @Override
+            public void onIdea(String seed, Idea idea) throws IOException {
+                listener.onIdea(seed, idea);
+            }
+
+            @Override
+            public void onKeywordDone(String seed, int ideaCount) throws IOException {
+                job.markProgress();
+                listener.onKeywordDone(seed, ideaCount);
+            }
+        };
+
+        // Run on a warm pooled worker, feeding its output through the ingestion pipeline.
+        // The worker is attached to the job for the duration of the call so cancellation can kill it.
+        try (IngestionPipeline.Batch batch = ingestion.open(weights, sink)) {
+            workerPool.execute(worker -> {
+                if (!job.attachWorker(worker)) {
+                    return null;
+                }
+                try {
+                    return worker.call(request, new PythonWorker.WorkerListener() {
+                        @Override
+                        public void onIdea(String seed, Idea idea) throws IOException {
+                            batch.onIdea(seed, idea);
+                        }
+
+                        @Override
+                        public void onKeywordDone(String seed, int ideaCount) throws IOException {
+                            batch.onKeywordDone(seed, ideaCount);
+                        }
+
+                        @Override
+                        public void onCompetitors(String seed, List<Competitor> competitors) throws IOException {
+                            batch.onCompetitors(seed, competitors);
+                        }
+
+                        @Override
+                        public void onPhase(WorkerMessage phase) throws IOException {
+                            // Phase events bypass the ingestion queues so progress is reported live
+                            researchMetrics.record(phase);
+                            listener.onPhase(phase);
+                        }
+                    });
+                } finally {
+                    job.detachWorker();
+                }
+            });
 
-        Path path = Paths.get(outputFile);
-        if (!Files.exists(path)) {
-            logger.warn("Research output file not found: {}", outputFile);
-            return ideas;
+            int saved = batch.finish();
+            if (job.isCancelRequested()) {
+                throw new CancellationException(job.getError());
+            }
+            return saved;
         }
+    }
+
+    /**
+     * Stop the service's background threads. Queued jobs and jobs still saving ideas fail.
+     */
+    public void shutdown() {
+        shutdown = true;
+        scheduler.shutdown();
+        ingestion.shutdown();
+    }
+
+    /**
+     * Whether {@link #shutdown()} has been called; research failing after that was interrupted, not broken.
+     */
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    public ResearchCache getResearchCache() {
+        return researchCache;
+    }
+
+    /**
+     * Phase latencies, competitor counts and token usage reported by the workers.
+     */
+    public ResearchMetrics getResearchMetrics() {
+        return researchMetrics;
+    }
+
+    /**
+     * Deduplication of concurrent research; its shared count is the number of keyword
+     * researches that were avoided by joining one already in flight.
+     */
+    public SingleFlight<String, List<Idea>> getInFlightResearch() {
+        return inFlight;
+    }
+
+    public IngestionPipeline getIngestionPipeline() {
+        return ingestion;
+    }
+
+    public ResearchJobScheduler getScheduler() {
+        return scheduler;
+    }
 
-        String json = Files.readString(path);
-        JsonArray jsonArray = gson.fromJson(json, JsonArray.class);
-
-        for (int i = 0; i < jsonArray.size(); i++) {
-            JsonObject obj = jsonArray.get(i).getAsJsonObject();
-            Idea idea = new Idea();
-            idea.setKeyword(obj.get("keyword").getAsString());
-            idea.setTitle(obj.has("title") ? obj.get("title").getAsString() : null);
-            idea.setSubtitle(obj.has("subtitle") ? obj.get("subtitle").getAsString() : null);
-            idea.setDemand(obj.get("demand").getAsDouble());
-            idea.setCompetition(obj.get("competition").getAsDouble());
-            idea.setMargin(obj.get("margin").getAsDouble());
-            idea.setEffort(obj.get("effort").getAsDouble());
-            idea.setNovelty(obj.get("novelty").getAsDouble());
-            idea.setScore(obj.get("score").getAsDouble());
-            idea.setRisk(obj.has("risk") ? obj.get("risk").getAsString() : null);
-            idea.setProfitability(obj.has("profitability") ? obj.get("profitability").getAsString() : null);
-            idea.setAiExplanation(obj.has("ai_explanation") ? obj.get("ai_explanation").getAsString() : null);
-            idea.setStatus(obj.has("status") ? obj.get("status").getAsString() : "pending");
-
-            ideas.add(idea);
+    private void publish(ResearchListener listener, Idea idea) {
+        try {
+            listener.onIdea(idea);
+        } catch (RuntimeException e) {
+            // A misbehaving subscriber must not abort the worker stream
+            logger.warn("Research subscriber failed for idea {}", idea.getKeyword(), e);
         }
+    }
 
-        return ideas;
+    private void notifyKeywordDone(ResearchListener listener, String keyword, int ideaCount) {
+        try {
+            listener.onKeywordDone(keyword, ideaCount);
+        } catch (RuntimeException e) {
+            logger.warn("Research subscriber failed for keyword {}", keyword, e);
+        }
     }
 }
-
@@ -0,0 +1,326 @@
+package com.kdp.autostudio.service;
+
+import com.kdp.autostudio.config.AppConfig;
+import com.kdp.autostudio.config.ConfigManager;
+import com.kdp.autostudio.config.ScoringWeights;
+import com.kdp.autostudio.dao.IIdeaDAO;
+import com.kdp.autostudio.model.Idea;
+import com.kdp.autostudio.util.AppExecutors;
+import com.kdp.autostudio.util.CancellableFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Research service that generates ideas instead of scraping and calling OpenAI.
+ * Output is deterministic: the ideas for a keyword depend only on the seed and the
+ * normalized keyword, so runs can be reproduced and compared. Volume, emission rate,
+ * per-keyword latency and failure rate are configurable, which makes it possible to
+ * load-test ingestion, scoring, the backlog and export offline at production volumes.
+ * When constructed with a DAO, ideas go through the same {@link IngestionPipeline}
+ * as real worker output.
+ */
+public class SyntheticResearchService implements IResearchService {
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticResearchService.class);
+
+    private static final String[] ADJECTIVES = {
+        "mindful", "daily", "minimalist", "vintage", "cozy", "bold", "simple", "large print",
+        "5 minute", "ultimate", "beginner", "advanced", "seasonal", "funny", "inspirational"
+    };
+    private static final String[] TOPICS = {
+        "gratitude", "fitness", "gardening", "budget", "meal prep", "bird watching", "fishing",
+        "hiking", "prayer", "dog training", "sudoku", "word search", "mandala", "dinosaur",
+        "unicorn", "recipe", "reading", "travel", "wedding", "pregnancy", "password", "mileage"
+    };
+    private static final String[] FORMATS = {
+        "journal", "planner", "log book", "coloring book", "activity book", "notebook",
+        "workbook", "puzzle book", "tracker", "sketchbook"
+    };
+    private static final String[] AUDIENCES = {
+        "for kids", "for teens", "for women", "for men", "for seniors", "for beginners",
+        "for teachers", "for nurses", "for couples", "for busy moms"
+    };
+    private static final String[] RISKS = {
+        "Standard market risk",
+        "Seasonal demand; sales concentrate in a few months",
+        "Crowded niche dominated by established publishers",
+        "Trademark-sensitive terms in related titles",
+        "Low search volume outside holidays"
+    };
+
+    private final long seed;
+    private final IngestionPipeline ingestion;
+    private final AppExecutors executors;
+    private final AtomicLong generated = new AtomicLong();
+    private final AtomicLong failedKeywords = new AtomicLong();
+    private volatile int ideasPerKeyword = 4;
+    private volatile double ideasPerSecond;
+    private volatile Duration keywordLatency = Duration.ZERO;
+    private volatile double failureRate;
+    private volatile ScoringWeights scoringWeights = new ScoringWeights();
+
+    /**
+     * Create a generator that only hands ideas to the caller, without saving them.
+     *
+     * @param seed Seed that determines every generated value
+     */
+    public SyntheticResearchService(long seed) {
+        this(seed, null, AppExecutors.getInstance());
+    }
+
+    /**
+     * Create a generator that saves ideas through the ingestion pipeline before handing them out.
+     *
+     * @param seed Seed that determines every generated value
+     * @param ideaDAO DAO the ideas are saved to
+     */
+    public SyntheticResearchService(long seed, IIdeaDAO ideaDAO) {
+        this(seed, ideaDAO, AppExecutors.getInstance());
+    }
+
+    /**
+     * @param seed Seed that determines every generated value
+     * @param ideaDAO DAO the ideas are saved to, or null to skip saving
+     * @param executors Executors that run the generation and the ingestion stages
+     */
+    public SyntheticResearchService(long seed, IIdeaDAO ideaDAO, AppExecutors executors) {
+        this.seed = seed;
+        this.executors = executors;
+        AppConfig config = ConfigManager.getInstance().getConfig();
+        this.ingestion = ideaDAO == null ? null : new IngestionPipeline(ideaDAO, config.getIngestionQueueCapacity(),
+                config.getIngestionBatchSize(), executors.io());
+    }
+
+    /**
+     * Generate a deterministic list of distinct seed keywords, e.g. to drive a load test.
+     *
+     * @param count Number of keywords
+     * @param seed Seed that determines the order of the keywords
+     */
+    public static List<String> keywords(int count, long seed) {
+        int combinations = ADJECTIVES.length * TOPICS.length * FORMATS.length;
+        long offset = new SplittableRandom(seed).nextInt(combinations);
+        List<String> keywords = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            // Walk every adjective/topic/format combination, then start a numbered edition
+            int combination = (int) ((i + offset) % combinations);
+            String keyword = ADJECTIVES[combination % ADJECTIVES.length] + " "
+                    + TOPICS[combination / ADJECTIVES.length % TOPICS.length] + " "
+                    + FORMATS[combination / (ADJECTIVES.length * TOPICS.length)];
+            int edition = i / combinations + 1;
+            keywords.add(edition == 1 ? keyword : keyword + " vol " + edition);
+        }
+        return keywords;
+    }
+
+    @Override
+    public CompletableFuture<List<Idea>> startResearch(List<String> keywords) {
+        List<Idea> ideas = Collections.synchronizedList(new ArrayList<>());
+        return generate(keywords, ideas::add).thenApply(count -> new ArrayList<>(ideas));
+    }
+
+    @Override
+    public CompletableFuture<Integer> streamResearch(List<String> keywords, Consumer<Idea> subscriber) {
+        return generate(keywords, subscriber);
+    }
+
+    private CompletableFuture<Integer> generate(List<String> keywords, Consumer<Idea> subscriber) {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        CancellableFuture<Integer> result = new CancellableFuture<>(() -> cancelled.set(true));
+
+        executors.io().execute(() -> {
+            try {
+                result.complete(run(keywords, subscriber, cancelled));
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    private int run(List<String> keywords, Consumer<Idea> subscriber, AtomicBoolean cancelled)
+            throws IOException, InterruptedException {
+        ScoringWeights weights = scoringWeights;
+        long intervalNanos = ideasPerSecond > 0 ? (long) (1_000_000_000L / ideasPerSecond) : 0;
+        long nextEmit = System.nanoTime();
+        int failed = 0;
+        int count = 0;
+
+        IngestionPipeline.Batch batch = ingestion == null ? null
+                : ingestion.open(weights, (seedKeyword, idea) -> subscriber.accept(idea));
+        try {
+            for (String keyword : keywords) {
+                SplittableRandom random = keywordRandom(keyword);
+                if (!keywordLatency.isZero()) {
+                    Thread.sleep(keywordLatency.toMillis());
+                }
+                if (random.nextDouble() < failureRate) {
+                    failed++;
+                    failedKeywords.incrementAndGet();
+                    logger.debug("Synthetic research failed for '{}'", keyword);
+                    continue;
+                }
+
+                for (int i = 0; i < ideasPerKeyword; i++) {
+                    if (cancelled.get()) {
+                        throw new CancellationException("Synthetic research cancelled");
+                    }
+                    if (intervalNanos > 0) {
+                        nextEmit += intervalNanos;
+                        long wait = nextEmit - System.nanoTime();
+                        if (wait > 0) {
+                            LockSupport.parkNanos(wait);
+                        }
+                    }
+
+                    Idea idea = createIdea(keyword, i, random);
+                    if (batch != null) {
+                        batch.onIdea(keyword, idea);
+                    } else {
+                        idea.calculateScore(weights);
+                        subscriber.accept(idea);
+                    }
+                    count++;
+                    generated.incrementAndGet();
+                }
+                if (batch != null) {
+                    batch.onKeywordDone(keyword, ideasPerKeyword);
+                }
+            }
+
+            if (batch != null) {
+                count = batch.finish();
+            }
+        } finally {
+            if (batch != null) {
+                batch.close();
+            }
+        }
+
+        if (failed > 0 && failed == keywords.size()) {
+            throw new IOException("Synthetic research failed for all " + failed + " keywords");
+        }
+        return count;
+    }
+
+    /**
+     * Random stream for one keyword, so its ideas do not depend on what was generated before it.
+     */
+    private SplittableRandom keywordRandom(String keyword) {
+        return new SplittableRandom(seed ^ (ResearchCache.normalize(keyword).hashCode() * 0x9E3779B97F4A7C15L));
+    }
+
+    private Idea createIdea(String keyword, int index, SplittableRandom random) {
+        // The first idea is the keyword itself; the rest are audience variations, as the worker produces
+        String ideaKeyword = index == 0 ? keyword : keyword + " " + AUDIENCES[(index - 1) % AUDIENCES.length];
+
+        // Most niches have middling demand and a long tail of strong ones; competition follows demand
+        double demand = clamp((random.nextDouble() + random.nextDouble() + random.nextDouble()) / 3
+                + (random.nextDouble() < 0.1 ? 0.25 : 0.0));
+        double competition = clamp(0.6 * demand + 0.4 * random.nextDouble());
+        double margin = clamp(0.5 + (random.nextDouble() - 0.5) * 0.6);
+        double effort = clamp(0.2 + 0.6 * random.nextDouble());
+        double novelty = clamp(Math.pow(random.nextDouble(), 2));
+        double price = 5.99 + Math.round(random.nextDouble() * 14);
+        double rating = 3.5 + Math.round(random.nextDouble() * 15) / 10.0;
+
+        Idea idea = new Idea(ideaKeyword);
+        idea.setTitle(titleCase(ideaKeyword));
+        idea.setDemand(round(demand));
+        idea.setCompetition(round(competition));
+        idea.setMargin(round(margin));
+        idea.setEffort(round(effort));
+        idea.setNovelty(round(novelty));
+        idea.setRisk(pick(random, RISKS));
+        idea.setProfitability(String.format(Locale.ROOT, "Average price: $%.2f, Average rating: %.1f", price, rating));
+        idea.setAiExplanation(String.format(Locale.ROOT,
+                "Synthetic analysis of '%s': demand %.2f against competition %.2f across %d sampled listings.",
+                ideaKeyword, demand, competition, 5 + random.nextInt(46)));
+        idea.setStatus("pending");
+        idea.setCreatedAt(LocalDateTime.now());
+        return idea;
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static double clamp(double value) {
+        return Math.max(0.0, Math.min(1.0, value));
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+
+    private static String titleCase(String text) {
+        StringBuilder result = new StringBuilder(text.length());
+        boolean start = true;
+        for (char c : text.toCharArray()) {
+            result.append(start ? Character.toUpperCase(c) : c);
+            start = c == ' ';
+        }
+        return result.toString();
+    }
+
+    /**
+     * Ideas per keyword, including the keyword itself. Defaults to 4, like the worker.
+     */
+    public void setIdeasPerKeyword(int ideasPerKeyword) {
+        this.ideasPerKeyword = Math.max(1, ideasPerKeyword);
+    }
+
+    /**
+     * Maximum emission rate per research call, or 0 for as fast as possible.
+     */
+    public void setIdeasPerSecond(double ideasPerSecond) {
+        this.ideasPerSecond = Math.max(0.0, ideasPerSecond);
+    }
+
+    /**
+     * Simulated scrape and LLM time spent on each keyword before its ideas are emitted.
+     */
+    public void setKeywordLatency(Duration keywordLatency) {
+        this.keywordLatency = keywordLatency;
+    }
+
+    /**
+     * Probability, between 0 and 1, that a keyword fails. Which keywords fail is deterministic.
+     */
+    public void setFailureRate(double failureRate) {
+        this.failureRate = clamp(failureRate);
+    }
+
+    public void setScoringWeights(ScoringWeights scoringWeights) {
+        this.scoringWeights = scoringWeights;
+    }
+
+    public long getGeneratedCount() {
+        return generated.get();
+    }
+
+    public long getFailedKeywordCount() {
+        return failedKeywords.get();
+    }
+
+    /**
+     * The ingestion pipeline ideas are saved through, or null if this service does not save ideas.
+     */
+    public IngestionPipeline getIngestionPipeline() {
+        return ingestion;
+    }
+}
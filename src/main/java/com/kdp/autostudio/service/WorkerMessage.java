@@ -0,0 +1,178 @@
+package com.kdp.autostudio.service;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.kdp.autostudio.model.Competitor;
+import com.kdp.autostudio.model.Idea;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One line of the worker's stdout protocol.
+ * Types are "ready", "idea", "phase", "competitors", "keyword_done", "done" and "error"; only the fields
+ * relevant to the type are populated.
+ */
+public class WorkerMessage {
+    private String type;
+    private String jobId;
+    private String seed;
+    private Idea idea;
+    private int count;
+    private String message;
+    private String version;
+    private String phase;
+    private String state;
+    private long elapsedMillis;
+    private int competitors;
+    private int promptTokens;
+    private int completionTokens;
+    private List<Competitor> listings;
+
+    /**
+     * Decode a single NDJSON line. Fields may appear in any order.
+     *
+     * @param line One line of worker output
+     * @return The decoded message
+     * @throws IOException if the line is not a valid protocol message
+     */
+    public static WorkerMessage decode(String line) throws IOException {
+        WorkerMessage msg = new WorkerMessage();
+        try (JsonReader reader = new JsonReader(new StringReader(line))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (reader.peek() == JsonToken.NULL) {
+                    reader.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "type" -> msg.type = reader.nextString();
+                    case "id" -> msg.jobId = reader.nextString();
+                    case "seed" -> msg.seed = reader.nextString();
+                    case "idea" -> msg.idea = IdeaJsonCodec.decode(reader);
+                    case "count" -> msg.count = reader.nextInt();
+                    case "message" -> msg.message = reader.nextString();
+                    case "version" -> msg.version = reader.nextString();
+                    case "phase" -> msg.phase = reader.nextString();
+                    case "state" -> msg.state = reader.nextString();
+                    case "elapsed_ms" -> msg.elapsedMillis = reader.nextLong();
+                    case "competitors" -> msg.competitors = reader.nextInt();
+                    case "prompt_tokens" -> msg.promptTokens = reader.nextInt();
+                    case "completion_tokens" -> msg.completionTokens = reader.nextInt();
+                    case "listings" -> msg.listings = decodeListings(reader);
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+        } catch (IllegalStateException | NumberFormatException e) {
+            throw new IOException("Malformed worker message: " + e.getMessage(), e);
+        }
+
+        if (msg.type == null) {
+            throw new IOException("Worker message has no type");
+        }
+        return msg;
+    }
+
+    private static List<Competitor> decodeListings(JsonReader reader) throws IOException {
+        List<Competitor> listings = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            Competitor competitor = new Competitor();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (reader.peek() == JsonToken.NULL) {
+                    reader.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "asin" -> competitor.setAsin(reader.nextString());
+                    case "title" -> competitor.setTitle(reader.nextString());
+                    case "subtitle" -> competitor.setSubtitle(reader.nextString());
+                    case "price" -> competitor.setPrice(reader.nextDouble());
+                    case "bsr" -> competitor.setBsr(reader.nextInt());
+                    case "category" -> competitor.setCategory(reader.nextString());
+                    case "review_count" -> competitor.setReviewCount(reader.nextInt());
+                    case "rating" -> competitor.setRating(reader.nextDouble());
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+            listings.add(competitor);
+        }
+        reader.endArray();
+        return listings;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public String getSeed() {
+        return seed;
+    }
+
+    public Idea getIdea() {
+        return idea;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * Name of the phase a "phase" message reports on, e.g. "scrape", "analyze" or "process".
+     */
+    public String getPhase() {
+        return phase;
+    }
+
+    /**
+     * Whether a "phase" message marks the start of the phase rather than its end.
+     */
+    public boolean isPhaseStart() {
+        return "start".equals(state);
+    }
+
+    /**
+     * Duration of the phase; only set when the phase ends.
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public int getCompetitors() {
+        return competitors;
+    }
+
+    public int getPromptTokens() {
+        return promptTokens;
+    }
+
+    public int getCompletionTokens() {
+        return completionTokens;
+    }
+
+    /**
+     * Listings scraped for the seed keyword of a "competitors" message.
+     */
+    public List<Competitor> getListings() {
+        return listings == null ? List.of() : listings;
+    }
+}
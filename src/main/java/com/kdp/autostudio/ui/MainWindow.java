@@ -2,6 +2,13 @@ package com.kdp.autostudio.ui;
 
 import com.kdp.autostudio.ui.panels.*;
 import com.kdp.autostudio.config.ConfigManager;
+import com.kdp.autostudio.config.ScoringWeights;
+import com.kdp.autostudio.dao.CachingIdeaDAO;
+import com.kdp.autostudio.dao.ColumnarIdeaDAO;
+import com.kdp.autostudio.service.RescoringEngine;
+import com.kdp.autostudio.service.DurableResearchRunner;
+import com.kdp.autostudio.util.CancellableFuture;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
@@ -17,9 +24,19 @@ import javafx.stage.Stage;
 public class MainWindow {
     private Stage stage;
     private TabPane tabPane;
+    private BacklogPanel backlogPanel;
+    private final DurableResearchRunner researchRunner;
+    private final CachingIdeaDAO ideaDAO;
 
-    public MainWindow(Stage stage) {
+    /**
+     * @param stage The primary stage
+     * @param researchRunner Runs research through the durable job queue on the application's research service
+     * @param ideaDAO The idea DAO research saves through, so the backlog sees new ideas without reloading
+     */
+    public MainWindow(Stage stage, DurableResearchRunner researchRunner, CachingIdeaDAO ideaDAO) {
         this.stage = stage;
+        this.researchRunner = researchRunner;
+        this.ideaDAO = ideaDAO;
         initializeUI();
     }
 
@@ -38,8 +55,12 @@ public class MainWindow {
         tabPane.setTabClosingPolicy(TabPane.TabClosingPolicy.UNAVAILABLE);
 
         // Add panels
-        Tab researchTab = new Tab("Research & Ideas", new ResearchPanel().getContent());
-        Tab backlogTab = new Tab("Idea Backlog", new BacklogPanel().getContent());
+        ResearchPanel researchPanel = new ResearchPanel(researchRunner);
+        backlogPanel = new BacklogPanel(ideaDAO);
+        // Researched ideas are saved through the backlog's DAO, so refreshing shows them without a reload
+        researchPanel.setOnResearchFinished(backlogPanel::refreshIdeas);
+        Tab researchTab = new Tab("Research & Ideas", researchPanel.getContent());
+        Tab backlogTab = new Tab("Idea Backlog", backlogPanel.getContent());
         Tab productionTab = new Tab("Production", new ProductionPanel().getContent());
         Tab packageTab = new Tab("Package & Export", new PackagePanel().getContent());
         Tab analyticsTab = new Tab("Analytics", new AnalyticsPanel().getContent());
@@ -70,7 +91,9 @@ public class MainWindow {
         Menu toolsMenu = new Menu("Tools");
         MenuItem validateItem = new MenuItem("Validate Projects");
         MenuItem exportItem = new MenuItem("Export All");
-        toolsMenu.getItems().addAll(validateItem, exportItem);
+        MenuItem rescoreItem = new MenuItem("Rescore Ideas");
+        rescoreItem.setOnAction(e -> startRescoring(ConfigManager.getInstance().getScoringWeights()));
+        toolsMenu.getItems().addAll(validateItem, exportItem, rescoreItem);
 
         // Help menu
         Menu helpMenu = new Menu("Help");
@@ -193,6 +216,7 @@ public class MainWindow {
                     effortSpinner.getValue(),
                     noveltySpinner.getValue()
                 );
+                boolean weightsChanged = !sameWeights(weights, newWeights);
                 configManager.setScoringWeights(newWeights);
                 
                 Alert successAlert = new Alert(Alert.AlertType.INFORMATION);
@@ -200,6 +224,11 @@ public class MainWindow {
                 successAlert.setHeaderText(null);
                 successAlert.setContentText("Settings have been saved successfully.");
                 successAlert.showAndWait();
+                
+                // Saved scores were computed with the old weights
+                if (weightsChanged) {
+                    startRescoring(newWeights);
+                }
             }
             return buttonType;
         });
@@ -207,6 +236,62 @@ public class MainWindow {
         dialog.showAndWait();
     }
     
+    private static boolean sameWeights(ScoringWeights a, ScoringWeights b) {
+        return a.getDemand() == b.getDemand()
+            && a.getCompetition() == b.getCompetition()
+            && a.getMargin() == b.getMargin()
+            && a.getEffort() == b.getEffort()
+            && a.getNovelty() == b.getNovelty();
+    }
+
+    /**
+     * Rescore every saved idea in the background, showing progress in a dialog whose
+     * Cancel button stops the run. Scores are written through the backlog's DAO, which
+     * moves the affected ideas in its cache and rankings, so the backlog only needs a refresh.
+     */
+    private void startRescoring(ScoringWeights weights) {
+        ProgressBar progressBar = new ProgressBar(0);
+        progressBar.setPrefWidth(300);
+        Label statusLabel = new Label("Loading ideas...");
+        
+        Alert progressAlert = new Alert(Alert.AlertType.NONE);
+        progressAlert.setTitle("Rescoring Ideas");
+        progressAlert.getDialogPane().setContent(new VBox(10, statusLabel, progressBar));
+        progressAlert.getDialogPane().getButtonTypes().add(ButtonType.CANCEL);
+        
+        CancellableFuture<RescoringEngine.Result> run = new RescoringEngine(new ColumnarIdeaDAO(ideaDAO))
+            .rescore(weights, progress -> Platform.runLater(() -> {
+                if (progress.scored() < progress.total()) {
+                    statusLabel.setText(String.format("Scoring %,d of %,d ideas", progress.scored(), progress.total()));
+                    progressBar.setProgress(0.5 * progress.scored() / progress.total());
+                } else if (progress.changed() > 0) {
+                    statusLabel.setText(String.format("Saving %,d of %,d changed scores",
+                                                      progress.written(), progress.changed()));
+                    progressBar.setProgress(0.5 + 0.5 * progress.written() / progress.changed());
+                }
+            }));
+        // Closing the dialog, by Cancel or otherwise, stops a run that is still going
+        progressAlert.setOnHidden(e -> run.cancel(true));
+        progressAlert.show();
+        
+        run.whenComplete((result, error) -> Platform.runLater(() -> {
+            progressAlert.close();
+            backlogPanel.refreshIdeas();
+            if (error != null && !run.isCancelled()) {
+                Alert alert = new Alert(Alert.AlertType.ERROR);
+                alert.setContentText("Rescoring failed: " + error.getMessage());
+                alert.showAndWait();
+            } else if (result != null) {
+                Alert alert = new Alert(Alert.AlertType.INFORMATION);
+                alert.setTitle("Rescoring Complete");
+                alert.setHeaderText(null);
+                alert.setContentText(String.format("Rescored %,d ideas in %,d ms; %,d scores changed.",
+                                                   result.total(), result.elapsedMillis(), result.changed()));
+                alert.showAndWait();
+            }
+        }));
+    }
+    
     private HBox createWeightRow(String label, Spinner<Double> spinner) {
         HBox row = new HBox(10);
         Label labelControl = new Label(label);
@@ -1,5 +1,8 @@
 package com.kdp.autostudio.ui.panels;
 
+import com.kdp.autostudio.dao.AnalyticsDAO;
+import com.kdp.autostudio.util.AppExecutors;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.scene.chart.LineChart;
 import javafx.scene.chart.NumberAxis;
@@ -9,12 +12,22 @@ import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 /**
  * Analytics panel for tracking published book performance.
  */
 public class AnalyticsPanel {
+    private static final int TREND_DAYS = 30;
+
     private TextField asinInput;
     private TableView<PerformanceRow> performanceTable;
+    private LineChart<Number, Number> bsrChart;
+    private AnalyticsDAO analyticsDAO;
 
     public AnalyticsPanel() {
     }
@@ -53,8 +66,8 @@ public class AnalyticsPanel {
         VBox chartSection = new VBox(10);
         chartSection.setPadding(new Insets(10));
 
-        Label chartLabel = new Label("BSR Trend (Last 30 Days):");
-        LineChart<Number, Number> bsrChart = createBSRChart();
+        Label chartLabel = new Label("BSR Trend (Last " + TREND_DAYS + " Days):");
+        bsrChart = createBSRChart();
 
         chartSection.getChildren().addAll(chartLabel, bsrChart);
 
@@ -97,25 +110,56 @@ public class AnalyticsPanel {
         xAxis.setLabel("Days Ago");
         NumberAxis yAxis = new NumberAxis();
         yAxis.setLabel("BSR");
-        yAxis.setAutoRanging(false);
-        yAxis.setLowerBound(0);
-        yAxis.setUpperBound(100000);
 
         LineChart<Number, Number> chart = new LineChart<>(xAxis, yAxis);
         chart.setTitle("Best Seller Rank Trend");
         chart.setPrefHeight(300);
 
-        // Sample data
-        XYChart.Series<Number, Number> series = new XYChart.Series<>();
-        series.setName("Sample Book");
-        series.getData().add(new XYChart.Data<>(30, 50000));
-        series.getData().add(new XYChart.Data<>(20, 35000));
-        series.getData().add(new XYChart.Data<>(10, 25000));
-        series.getData().add(new XYChart.Data<>(0, 15000));
+        return chart;
+    }
 
-        chart.getData().add(series);
+    /**
+     * Load the trend of an ASIN off the FX thread and plot its average BSR.
+     * The window is read from the daily rollup, so it costs one row per day.
+     */
+    private void loadTrend(String asin) {
+        LocalDateTime to = LocalDateTime.now();
+        LocalDateTime from = to.minusDays(TREND_DAYS);
+
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                return getAnalyticsDAO().findTrend(asin, from, to);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, AppExecutors.getInstance().io()).whenComplete((points, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                Alert alert = new Alert(Alert.AlertType.ERROR);
+                alert.setContentText("Error loading trend: " + error.getMessage());
+                alert.showAndWait();
+                return;
+            }
+            showTrend(asin, points, to);
+        }));
+    }
 
-        return chart;
+    private void showTrend(String asin, List<AnalyticsDAO.TrendPoint> points, LocalDateTime now) {
+        XYChart.Series<Number, Number> series = new XYChart.Series<>();
+        series.setName(asin);
+        for (AnalyticsDAO.TrendPoint point : points) {
+            if (point.avgBsr() != null) {
+                double daysAgo = Duration.between(point.start(), now).toHours() / 24.0;
+                series.getData().add(new XYChart.Data<>(daysAgo, point.avgBsr()));
+            }
+        }
+        bsrChart.getData().setAll(List.of(series));
+    }
+
+    private AnalyticsDAO getAnalyticsDAO() {
+        if (analyticsDAO == null) {
+            analyticsDAO = new AnalyticsDAO();
+        }
+        return analyticsDAO;
     }
 
     private void addASIN() {
@@ -135,6 +179,12 @@ public class AnalyticsPanel {
     }
 
     private void refreshAnalytics() {
+        String asin = asinInput.getText().trim();
+        if (!asin.isEmpty()) {
+            loadTrend(asin);
+            return;
+        }
+
         // TODO: Fetch latest data for all tracked ASINs
         Alert alert = new Alert(Alert.AlertType.INFORMATION);
         alert.setContentText("Refreshing analytics data...");
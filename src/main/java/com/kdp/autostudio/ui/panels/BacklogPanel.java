@@ -1,5 +1,16 @@
 package com.kdp.autostudio.ui.panels;
 
+import com.kdp.autostudio.dao.CachingIdeaDAO;
+import com.kdp.autostudio.dao.CompetitorDAO;
+import com.kdp.autostudio.dao.IdeaCursor;
+import com.kdp.autostudio.dao.IdeaQuery;
+import com.kdp.autostudio.dao.IdeaSearchResult;
+import com.kdp.autostudio.dao.StatusRule;
+import com.kdp.autostudio.model.Competitor;
+import com.kdp.autostudio.model.Idea;
+import com.kdp.autostudio.model.IdeaSummary;
+import com.kdp.autostudio.util.AppExecutors;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
@@ -9,16 +20,44 @@ import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
 /**
  * Backlog panel for viewing, sorting, and approving book ideas.
  */
 public class BacklogPanel {
+    private static final int PAGE_SIZE = 200;
+    private static final int SEARCH_LIMIT = 200;
+    private static final int MAX_COMPETITORS_SHOWN = 5;
+    // Pages are fetched by score only, so these orders apply to the rows loaded so far
+    private static final String SORT_DEMAND = "Demand (loaded rows)";
+    private static final String SORT_COMPETITION = "Competition (loaded rows)";
+    private static final String SORT_DATE = "Date (loaded rows)";
+
     private TableView<IdeaRow> ideaTable;
     private ObservableList<IdeaRow> ideas;
-
-    public BacklogPanel() {
+    private ComboBox<String> sortCombo;
+    private ComboBox<String> filterCombo;
+    private Button loadMoreButton;
+    private TextField thresholdField;
+    private TextField searchField;
+    private long searchSequence;
+    private final CachingIdeaDAO ideaDAO;
+    private CompetitorDAO competitorDAO;
+    private IdeaQuery nextQuery;
+
+    /**
+     * @param ideaDAO The DAO the backlog reads through; ideas saved through it elsewhere,
+     *                e.g. by research, appear without a reload
+     */
+    public BacklogPanel(CachingIdeaDAO ideaDAO) {
+        this.ideaDAO = ideaDAO;
         ideas = FXCollections.observableArrayList();
-        // TODO: Load ideas from database
     }
 
     public BorderPane getContent() {
@@ -32,18 +71,25 @@ public class BacklogPanel {
         Label titleLabel = new Label("Idea Backlog");
         titleLabel.setStyle("-fx-font-size: 18px; -fx-font-weight: bold;");
 
-        ComboBox<String> sortCombo = new ComboBox<>();
-        sortCombo.getItems().addAll("Score (High to Low)", "Score (Low to High)", "Demand", "Competition", "Date");
+        sortCombo = new ComboBox<>();
+        sortCombo.getItems().addAll("Score (High to Low)", "Score (Low to High)", SORT_DEMAND, SORT_COMPETITION, SORT_DATE);
         sortCombo.setValue("Score (High to Low)");
 
-        ComboBox<String> filterCombo = new ComboBox<>();
+        filterCombo = new ComboBox<>();
         filterCombo.getItems().addAll("All", "Pending", "Approved", "Rejected");
         filterCombo.setValue("All");
+        sortCombo.setOnAction(e -> refreshIdeas());
+        filterCombo.setOnAction(e -> refreshIdeas());
 
         Button refreshButton = new Button("Refresh");
-        refreshButton.setOnAction(e -> refreshIdeas());
+        refreshButton.setOnAction(e -> reload());
 
-        topBox.getChildren().addAll(titleLabel, new Label("Sort:"), sortCombo, new Label("Filter:"), filterCombo, refreshButton);
+        searchField = new TextField();
+        searchField.setPromptText("Search ideas");
+        searchField.textProperty().addListener((observable, oldText, newText) -> refreshIdeas());
+
+        topBox.getChildren().addAll(titleLabel, new Label("Sort:"), sortCombo, new Label("Filter:"), filterCombo,
+                                    searchField, refreshButton);
 
         // Center: Table view
         ideaTable = createIdeaTable();
@@ -60,12 +106,23 @@ public class BacklogPanel {
         Button viewDetailsButton = new Button("View Details");
         viewDetailsButton.setOnAction(e -> viewDetails());
 
-        bottomBox.getChildren().addAll(approveButton, rejectButton, viewDetailsButton);
+        loadMoreButton = new Button("Load More");
+        loadMoreButton.setDisable(true);
+        loadMoreButton.setOnAction(e -> loadNextPage());
+
+        thresholdField = new TextField("0.4");
+        thresholdField.setPrefWidth(60);
+        Button rejectBelowButton = new Button("Reject Pending Below");
+        rejectBelowButton.setOnAction(e -> rejectPendingBelow());
+
+        bottomBox.getChildren().addAll(approveButton, rejectButton, viewDetailsButton, loadMoreButton,
+                                       rejectBelowButton, thresholdField);
 
         root.setTop(topBox);
         root.setCenter(ideaTable);
         root.setBottom(bottomBox);
 
+        refreshIdeas();
         return root;
     }
 
@@ -90,59 +147,237 @@ public class BacklogPanel {
         TableColumn<IdeaRow, String> statusCol = new TableColumn<>("Status");
         statusCol.setCellValueFactory(new PropertyValueFactory<>("status"));
 
-        table.getColumns().addAll(keywordCol, titleCol, scoreCol, demandCol, competitionCol, statusCol);
+        TableColumn<IdeaRow, String> matchCol = new TableColumn<>("Match");
+        matchCol.setCellValueFactory(new PropertyValueFactory<>("match"));
+
+        table.getColumns().addAll(keywordCol, titleCol, scoreCol, demandCol, competitionCol, statusCol, matchCol);
         table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+        table.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
 
         return table;
     }
 
-    private void refreshIdeas() {
-        // TODO: Load ideas from database
+    /**
+     * Drop the cached ideas and reload the table, e.g. after ideas were changed elsewhere.
+     */
+    private void reload() {
+        getIdeaDAO().invalidate();
+        refreshIdeas();
+    }
+
+    /**
+     * Reload the table from the first page. Only summary columns are read; ideas are
+     * fetched a page at a time, ordered by score, as the user asks for more.
+     */
+    public void refreshIdeas() {
+        String filter = filterCombo.getValue();
+        String status = filter == null || "All".equals(filter) ? null : filter.toLowerCase();
+        String searchText = searchField.getText();
+        if (searchText != null && !searchText.isBlank()) {
+            search(searchText, status);
+            return;
+        }
+        searchSequence++;
+        boolean ascending = "Score (Low to High)".equals(sortCombo.getValue());
+        nextQuery = new IdeaQuery(status, ascending, PAGE_SIZE, null);
         ideas.clear();
-        // Add sample data for demonstration
-        ideas.add(new IdeaRow("gratitude journal", "Gratitude Journal", 0.85, 0.75, 0.60, "pending"));
+        loadNextPage();
     }
 
-    private void approveSelected() {
-        IdeaRow selected = ideaTable.getSelectionModel().getSelectedItem();
-        if (selected != null) {
-            // TODO: Update status in database
-            Alert alert = new Alert(Alert.AlertType.INFORMATION);
-            alert.setContentText("Idea approved: " + selected.getKeyword());
-            alert.showAndWait();
+    private void loadNextPage() {
+        IdeaQuery query = nextQuery;
+        if (query == null) {
+            return;
+        }
+        long sequence = searchSequence;
+        nextQuery = null;
+        loadMoreButton.setDisable(true);
+
+        runInBackground(() -> getIdeaDAO().findSummaries(query), summaries -> {
+            // The table was reloaded or searched while this page was loading
+            if (sequence != searchSequence) {
+                return;
+            }
+            summaries.forEach(summary -> ideas.add(new IdeaRow(summary)));
+            sortLoadedRows();
+            if (summaries.size() == query.pageSize()) {
+                nextQuery = query.after(IdeaCursor.of(summaries.get(summaries.size() - 1)));
+                loadMoreButton.setDisable(false);
+            }
+        });
+    }
+
+    /**
+     * Show the best full-text matches instead of the paged backlog. Runs on every
+     * keystroke; results of a search that has since been superseded are dropped.
+     */
+    private void search(String text, String status) {
+        long sequence = ++searchSequence;
+        nextQuery = null;
+        loadMoreButton.setDisable(true);
+
+        runInBackground(() -> getIdeaDAO().search(text, status, SEARCH_LIMIT), results -> {
+            if (sequence != searchSequence) {
+                return;
+            }
+            ideas.setAll(results.stream().map(IdeaRow::new).toList());
+            sortLoadedRows();
+        });
+    }
+
+    /**
+     * Pages are always fetched in score order; the other sort options reorder the rows loaded so far.
+     */
+    private void sortLoadedRows() {
+        Comparator<IdeaRow> order = switch (String.valueOf(sortCombo.getValue())) {
+            case SORT_DEMAND -> Comparator.comparingDouble(IdeaRow::getDemand).reversed();
+            case SORT_COMPETITION -> Comparator.comparingDouble(IdeaRow::getCompetition);
+            case SORT_DATE -> Comparator.comparingInt(IdeaRow::getId).reversed();
+            default -> null;
+        };
+        if (order != null) {
+            List<IdeaRow> sorted = ideas.stream().sorted(order).toList();
+            ideas.setAll(sorted);
         }
     }
 
+    private void approveSelected() {
+        updateSelected("approved");
+    }
+
     private void rejectSelected() {
-        IdeaRow selected = ideaTable.getSelectionModel().getSelectedItem();
-        if (selected != null) {
-            // TODO: Update status in database
-            Alert alert = new Alert(Alert.AlertType.INFORMATION);
-            alert.setContentText("Idea rejected: " + selected.getKeyword());
-            alert.showAndWait();
+        updateSelected("rejected");
+    }
+
+    /**
+     * Move every selected idea to a status in one transaction.
+     */
+    private void updateSelected(String status) {
+        List<Integer> ids = ideaTable.getSelectionModel().getSelectedItems().stream()
+            .map(IdeaRow::getId)
+            .toList();
+        if (ids.isEmpty()) {
+            return;
+        }
+        runInBackground(() -> getIdeaDAO().updateStatus(ids, status), updated -> {
+            showInfo(updated + (updated == 1 ? " idea " : " ideas ") + status);
+            refreshIdeas();
+        });
+    }
+
+    private void rejectPendingBelow() {
+        double threshold;
+        try {
+            threshold = Double.parseDouble(thresholdField.getText().trim());
+        } catch (NumberFormatException e) {
+            showInfo("Enter a score between 0 and 1");
+            return;
         }
+        StatusRule rule = StatusRule.below("pending", threshold, "rejected");
+        runInBackground(() -> getIdeaDAO().applyStatusRule(rule), updated -> {
+            showInfo(updated + " pending ideas scoring below " + threshold + " rejected");
+            refreshIdeas();
+        });
+    }
+
+    private void showInfo(String message) {
+        Alert alert = new Alert(Alert.AlertType.INFORMATION);
+        alert.setContentText(message);
+        alert.showAndWait();
     }
 
     private void viewDetails() {
         IdeaRow selected = ideaTable.getSelectionModel().getSelectedItem();
         if (selected != null) {
-            // TODO: Show detailed view with AI explanation
-            Alert alert = new Alert(Alert.AlertType.INFORMATION);
-            alert.setTitle("Idea Details");
-            alert.setHeaderText(selected.getTitle());
-            alert.setContentText("AI Explanation and detailed metrics will be shown here.");
-            alert.showAndWait();
+            // The table only holds summaries; the explanation and competitors are loaded when asked for
+            runInBackground(() -> {
+                Idea idea = getIdeaDAO().findById(selected.getId());
+                return idea == null ? null : describe(idea, getCompetitorDAO().findByIdeaId(idea.getId()));
+            }, details -> {
+                Alert alert = new Alert(Alert.AlertType.INFORMATION);
+                alert.setTitle("Idea Details");
+                alert.setHeaderText(selected.getTitle());
+                alert.setContentText(details == null ? "This idea no longer exists." : details);
+                alert.showAndWait();
+            });
+        }
+    }
+
+    private static String describe(Idea idea, List<Competitor> competitors) {
+        StringBuilder text = new StringBuilder();
+        if (idea.getSubtitle() != null) {
+            text.append(idea.getSubtitle()).append("\n\n");
+        }
+        text.append(String.format("Score: %.2f  Demand: %.2f  Competition: %.2f  Margin: %.2f%n",
+                idea.getScore(), idea.getDemand(), idea.getCompetition(), idea.getMargin()));
+        text.append("Risk: ").append(idea.getRisk()).append("\n");
+        text.append("Profitability: ").append(idea.getProfitability()).append("\n\n");
+        text.append(idea.getAiExplanation() != null ? idea.getAiExplanation() : "No AI explanation available.");
+
+        if (!competitors.isEmpty()) {
+            text.append("\n\nTop competitors (").append(competitors.size()).append(" found):");
+            for (Competitor competitor : competitors.subList(0, Math.min(MAX_COMPETITORS_SHOWN, competitors.size()))) {
+                text.append(String.format("%n%s  $%.2f  %.1f stars, %d reviews", competitor.getTitle(),
+                        competitor.getPrice(), competitor.getRating(), competitor.getReviewCount()));
+            }
+        }
+        return text.toString();
+    }
+
+    private CompetitorDAO getCompetitorDAO() {
+        if (competitorDAO == null) {
+            competitorDAO = new CompetitorDAO();
+        }
+        return competitorDAO;
+    }
+
+    /**
+     * The DAO the backlog reads through. Changes made with it keep the backlog's cache
+     * and rankings current, so the table can be refreshed without going back to the database.
+     */
+    public CachingIdeaDAO getIdeaDAO() {
+        return ideaDAO;
+    }
+
+    /**
+     * Run database work off the FX thread and hand its result back on it.
+     */
+    private <T> void runInBackground(Callable<T> work, Consumer<T> onSuccess) {
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                return work.call();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, AppExecutors.getInstance().io()).whenComplete((result, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                Alert alert = new Alert(Alert.AlertType.ERROR);
+                alert.setContentText("Database error: " + rootMessage(error));
+                alert.showAndWait();
+            } else {
+                onSuccess.accept(result);
+            }
+        }));
+    }
+
+    private static String rootMessage(Throwable error) {
+        Throwable cause = error;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
         }
+        return cause.getMessage();
     }
 
     // Simple row model for table display
     public static class IdeaRow {
+        private int id;
         private String keyword;
         private String title;
         private double score;
         private double demand;
         private double competition;
         private String status;
+        private String match;
 
         public IdeaRow(String keyword, String title, double score, double demand, double competition, String status) {
             this.keyword = keyword;
@@ -153,12 +388,25 @@ public class BacklogPanel {
             this.status = status;
         }
 
+        public IdeaRow(IdeaSummary summary) {
+            this(summary.keyword(), summary.title(), summary.score(), summary.demand(), summary.competition(),
+                 summary.status());
+            this.id = summary.id();
+        }
+
+        public IdeaRow(IdeaSearchResult result) {
+            this(result.summary());
+            this.match = result.snippet();
+        }
+
+        public int getId() { return id; }
         public String getKeyword() { return keyword; }
         public String getTitle() { return title; }
         public double getScore() { return score; }
         public double getDemand() { return demand; }
         public double getCompetition() { return competition; }
         public String getStatus() { return status; }
+        public String getMatch() { return match; }
     }
 }
 
@@ -1,11 +1,28 @@
 package com.kdp.autostudio.ui.panels;
 
+import com.kdp.autostudio.model.Idea;
+import com.kdp.autostudio.service.DurableResearchRunner;
+import com.kdp.autostudio.service.ResearchCache;
+import com.kdp.autostudio.service.ResearchJob;
+import com.kdp.autostudio.service.ResearchListener;
+import com.kdp.autostudio.service.ResearchMetrics;
+import com.kdp.autostudio.util.AppExecutors;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.scene.control.*;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Research panel for entering seed keywords and triggering research jobs.
  */
@@ -14,8 +31,23 @@ public class ResearchPanel {
     private TextArea progressArea;
     private Button startResearchButton;
     private ProgressBar progressBar;
+    private final DurableResearchRunner researchRunner;
+    private Runnable onResearchFinished = () -> { };
+
+    /**
+     * @param researchRunner Runs research through the durable job queue, so a run
+     *                       interrupted by a crash resumes on the next start
+     */
+    public ResearchPanel(DurableResearchRunner researchRunner) {
+        this.researchRunner = researchRunner;
+    }
 
-    public ResearchPanel() {
+    /**
+     * Set what to run on the FX thread when a research run ends, e.g. refreshing
+     * views of the ideas it saved.
+     */
+    public void setOnResearchFinished(Runnable onResearchFinished) {
+        this.onResearchFinished = onResearchFinished;
     }
 
     public BorderPane getContent() {
@@ -64,8 +96,14 @@ public class ResearchPanel {
     }
 
     private void startResearch() {
-        String keywords = keywordInput.getText().trim();
-        if (keywords.isEmpty()) {
+        List<String> seeds = new ArrayList<>();
+        Set<String> distinct = new HashSet<>();
+        for (String keyword : keywordInput.getText().split(",")) {
+            if (!keyword.isBlank() && distinct.add(ResearchCache.normalize(keyword))) {
+                seeds.add(keyword.trim());
+            }
+        }
+        if (seeds.isEmpty()) {
             Alert alert = new Alert(Alert.AlertType.WARNING);
             alert.setTitle("No Keywords");
             alert.setContentText("Please enter at least one keyword to research.");
@@ -73,25 +111,86 @@ public class ResearchPanel {
             return;
         }
 
-        // TODO: Implement research job execution
+        int total = seeds.size();
+        AtomicInteger keywordsDone = new AtomicInteger();
+
         startResearchButton.setDisable(true);
-        progressBar.setProgress(ProgressBar.INDETERMINATE_PROGRESS);
-        progressArea.appendText("\n\nStarting research for: " + keywords);
-        progressArea.appendText("\n[This will trigger Python worker to scrape Amazon and analyze with OpenAI]");
+        progressBar.setProgress(0);
+        progressArea.appendText("\n\nStarting research for: " + String.join(", ", seeds));
 
-        // Simulate async operation
-        new Thread(() -> {
-            try {
-                Thread.sleep(2000); // Simulate work
-                javafx.application.Platform.runLater(() -> {
-                    progressArea.appendText("\nResearch completed! Check the Idea Backlog tab for results.");
-                    progressBar.setProgress(1.0);
-                    startResearchButton.setDisable(false);
+        ResearchListener listener = new ResearchListener() {
+            @Override
+            public void onIdea(Idea idea) {
+            }
+
+            @Override
+            public void onPhase(String keyword, String phase, boolean started) {
+                if (started) {
+                    Platform.runLater(() -> progressArea.appendText("\n[" + keyword + "] " + describe(phase) + "..."));
+                }
+            }
+
+            @Override
+            public void onKeywordDone(String keyword, int ideaCount) {
+                double progress = (double) keywordsDone.incrementAndGet() / total;
+                Platform.runLater(() -> {
+                    progressBar.setProgress(progress);
+                    progressArea.appendText("\n[" + keyword + "] Done: " + ideaCount + " ideas");
                 });
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
             }
-        }).start();
+        };
+
+        // Persisting the job touches SQLite, so it is submitted off the FX thread
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                return researchRunner.submit(seeds, ResearchJob.PRIORITY_INTERACTIVE, listener);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        }, AppExecutors.getInstance().io()).thenCompose(run -> run).whenComplete((result, error) ->
+            Platform.runLater(() -> {
+                if (error != null) {
+                    progressArea.appendText("\nResearch failed: " + rootMessage(error));
+                    progressBar.setProgress(0);
+                } else {
+                    progressArea.appendText("\nResearch completed with " + result.getIdeaCount()
+                            + " ideas! Check the Idea Backlog tab for results.");
+                    if (!result.isComplete()) {
+                        progressArea.appendText("\nFailed keywords: " + String.join(", ", result.getFailedKeywords()));
+                    }
+                    progressBar.setProgress(1.0);
+                }
+                appendPhaseTimings();
+                startResearchButton.setDisable(false);
+                onResearchFinished.run();
+            }));
+    }
+
+    private void appendPhaseTimings() {
+        ResearchMetrics metrics = researchRunner.getResearchService().getResearchMetrics();
+        metrics.getPhaseLatencies().forEach((phase, latency) -> progressArea.appendText(String.format(
+                "\n%s: %d runs, median %d ms, p95 %d ms, max %d ms",
+                describe(phase), latency.count(), latency.p50Millis(), latency.p95Millis(), latency.maxMillis())));
+        if (metrics.getPromptTokens() + metrics.getCompletionTokens() > 0) {
+            progressArea.appendText("\nOpenAI tokens used: " + metrics.getPromptTokens() + " prompt, "
+                    + metrics.getCompletionTokens() + " completion");
+        }
+    }
+
+    private static String describe(String phase) {
+        return switch (phase) {
+            case "scrape" -> "Scraping Amazon listings";
+            case "analyze" -> "Analyzing with OpenAI";
+            case "process" -> "Scoring ideas";
+            default -> phase;
+        };
     }
-}
 
+    private static String rootMessage(Throwable error) {
+        Throwable cause = error;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage();
+    }
+}
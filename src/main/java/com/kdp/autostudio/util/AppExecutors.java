@@ -0,0 +1,88 @@
+package com.kdp.autostudio.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Application-wide executors.
+ * Blocking work (worker process I/O, JDBC, file access) runs on virtual threads so
+ * it never ties up a platform thread; CPU-bound work such as scoring runs on a
+ * platform pool bounded to the number of cores. Both expose queue depth and
+ * active task metrics.
+ */
+public class AppExecutors {
+    private static final Logger logger = LoggerFactory.getLogger(AppExecutors.class);
+    private static AppExecutors instance;
+
+    private final MeteredExecutorService io;
+    private final MeteredExecutorService cpu;
+
+    public AppExecutors() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param cpuThreads Number of platform threads for CPU-bound work
+     */
+    public AppExecutors(int cpuThreads) {
+        ThreadFactory ioThreads = Thread.ofVirtual().name("io-", 0).factory();
+        this.io = new MeteredExecutorService("io", Executors.newThreadPerTaskExecutor(ioThreads));
+
+        AtomicInteger cpuThreadIds = new AtomicInteger();
+        ThreadPoolExecutor cpuPool = new ThreadPoolExecutor(
+            Math.max(1, cpuThreads), Math.max(1, cpuThreads),
+            0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(),
+            r -> {
+                Thread thread = new Thread(r, "cpu-" + cpuThreadIds.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            });
+        this.cpu = new MeteredExecutorService("cpu", cpuPool);
+    }
+
+    public static synchronized AppExecutors getInstance() {
+        if (instance == null) {
+            instance = new AppExecutors();
+        }
+        return instance;
+    }
+
+    /**
+     * Close the shared executors if they were ever created.
+     */
+    public static synchronized void shutdownInstance() {
+        if (instance != null) {
+            instance.shutdown();
+            instance = null;
+        }
+    }
+
+    /**
+     * Executor for blocking I/O; every task gets its own virtual thread.
+     */
+    public ExecutorService io() {
+        return io;
+    }
+
+    /**
+     * Executor for CPU-bound work, bounded to a fixed number of platform threads.
+     */
+    public ExecutorService cpu() {
+        return cpu;
+    }
+
+    public List<MeteredExecutorService.Metrics> getMetrics() {
+        return List.of(io.getMetrics(), cpu.getMetrics());
+    }
+
+    public void shutdown() {
+        io.shutdownNow();
+        cpu.shutdownNow();
+        logger.info("Application executors shut down");
+    }
+}
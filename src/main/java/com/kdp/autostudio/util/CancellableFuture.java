@@ -0,0 +1,30 @@
+package com.kdp.autostudio.util;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * CompletableFuture whose cancellation runs a hook, so that cancelling it stops
+ * the underlying work instead of only abandoning the result.
+ * Dependent stages created with thenApply and friends share the same hook.
+ */
+public class CancellableFuture<T> extends CompletableFuture<T> {
+    private final Runnable onCancel;
+
+    public CancellableFuture(Runnable onCancel) {
+        this.onCancel = onCancel;
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        boolean cancelled = super.cancel(mayInterruptIfRunning);
+        if (cancelled) {
+            onCancel.run();
+        }
+        return cancelled;
+    }
+
+    @Override
+    public <U> CompletableFuture<U> newIncompleteFuture() {
+        return new CancellableFuture<>(onCancel);
+    }
+}
@@ -0,0 +1,57 @@
+package com.kdp.autostudio.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with power-of-two millisecond buckets.
+ * Bucket i counts samples below 2^i ms, so percentiles are accurate to within a factor of two,
+ * which is enough to tell a 2 second scrape from a 30 second one.
+ */
+public class LatencyHistogram {
+    private static final int BUCKETS = 24;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong sumMillis = new AtomicLong();
+    private final AtomicLong maxMillis = new AtomicLong();
+
+    /**
+     * Summary of the samples recorded so far. Percentiles are bucket upper bounds.
+     */
+    public record Snapshot(long count, double meanMillis, long p50Millis, long p95Millis, long p99Millis,
+                           long maxMillis) {
+    }
+
+    public void record(long millis) {
+        long value = Math.max(0, millis);
+        int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(value));
+        counts.incrementAndGet(bucket);
+        total.incrementAndGet();
+        sumMillis.addAndGet(value);
+        maxMillis.accumulateAndGet(value, Math::max);
+    }
+
+    public Snapshot snapshot() {
+        long count = total.get();
+        long max = maxMillis.get();
+        double mean = count == 0 ? 0.0 : (double) sumMillis.get() / count;
+        return new Snapshot(count, mean, percentile(0.50, count, max), percentile(0.95, count, max),
+                            percentile(0.99, count, max), max);
+    }
+
+    private long percentile(double fraction, long count, long max) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(fraction * count);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(max, (1L << i) - 1);
+            }
+        }
+        return max;
+    }
+}
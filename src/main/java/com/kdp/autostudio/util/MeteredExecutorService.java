@@ -0,0 +1,88 @@
+package com.kdp.autostudio.util;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ExecutorService wrapper that counts submitted, started, completed and failed tasks,
+ * from which queue depth and active task counts are derived.
+ */
+public class MeteredExecutorService extends AbstractExecutorService {
+    private final String name;
+    private final ExecutorService delegate;
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong started = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    /**
+     * Point-in-time view of an executor's load.
+     */
+    public record Metrics(String name, long queued, long active, long completed, long failed) {
+    }
+
+    public MeteredExecutorService(String name, ExecutorService delegate) {
+        this.name = name;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        submitted.incrementAndGet();
+        try {
+            delegate.execute(() -> {
+                started.incrementAndGet();
+                try {
+                    command.run();
+                } catch (RuntimeException | Error e) {
+                    failed.incrementAndGet();
+                    throw e;
+                } finally {
+                    completed.incrementAndGet();
+                }
+            });
+        } catch (RuntimeException e) {
+            // Rejected tasks never run, so they must not count as queued
+            submitted.decrementAndGet();
+            throw e;
+        }
+    }
+
+    public Metrics getMetrics() {
+        long done = completed.get();
+        long running = started.get();
+        return new Metrics(name, submitted.get() - running, running - done, done, failed.get());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+}
@@ -0,0 +1,103 @@
+package com.kdp.autostudio.util;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deduplicates concurrent computations of the same key.
+ * The first caller to claim a key becomes its leader and must complete or fail the claim;
+ * callers that claim the key while it is in flight become followers and share the
+ * leader's result instead of computing it again. Once the leader finishes, the key is
+ * released and the next claim starts a new computation.
+ *
+ * @param <K> Key type; callers are responsible for normalizing keys
+ * @param <V> Result type
+ */
+public class SingleFlight<K, V> {
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong leaders = new AtomicLong();
+    private final AtomicLong followers = new AtomicLong();
+
+    /**
+     * A caller's stake in a key: either the computation it must perform, or one it joined.
+     */
+    public class Claim {
+        private final K key;
+        private final CompletableFuture<V> future;
+        private final boolean leader;
+
+        private Claim(K key, CompletableFuture<V> future, boolean leader) {
+            this.key = key;
+            this.future = future;
+            this.leader = leader;
+        }
+
+        /**
+         * Whether this caller must compute the value and then call {@link #complete} or {@link #fail}.
+         */
+        public boolean isLeader() {
+            return leader;
+        }
+
+        /**
+         * Future of the shared result; for a leader it completes when the leader completes the claim.
+         */
+        public CompletableFuture<V> getFuture() {
+            return future;
+        }
+
+        /**
+         * Publish the result to every follower and release the key. Later calls have no effect.
+         */
+        public void complete(V value) {
+            if (leader) {
+                inFlight.remove(key, future);
+                future.complete(value);
+            }
+        }
+
+        /**
+         * Fail every follower and release the key. Later calls have no effect.
+         */
+        public void fail(Throwable cause) {
+            if (leader) {
+                inFlight.remove(key, future);
+                future.completeExceptionally(cause);
+            }
+        }
+    }
+
+    /**
+     * Claim a key, becoming its leader if no computation for it is in flight.
+     */
+    public Claim claim(K key) {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+        if (existing == null) {
+            leaders.incrementAndGet();
+            return new Claim(key, created, true);
+        }
+        followers.incrementAndGet();
+        return new Claim(key, existing, false);
+    }
+
+    /**
+     * Number of computations started.
+     */
+    public long getLeaderCount() {
+        return leaders.get();
+    }
+
+    /**
+     * Number of claims that joined a computation already in flight, i.e. computations saved.
+     */
+    public long getSharedCount() {
+        return followers.get();
+    }
+
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+}